@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.chat_commands;
+
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures parsing a chat command and reading its arguments, compared with the split the commands used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatCommandParserBenchmark {
+
+    private static final List<String> PREFIXES = List.of("!", "pz ");
+
+    @Param({"chat", "short", "quoted", "long"})
+    public String message;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        content = switch (message) {
+            case "chat" -> "this is just someone talking in the channel, not a command";
+            case "short" -> "!ping";
+            case "quoted" -> "pz poll \"what should we play\" \"among us\" \"minecraft\" \"say \\\"nothing\\\"\"";
+            case "long" -> "!say #general " + "the quick brown fox jumps over the lazy dog ".repeat(40);
+            default -> throw new IllegalArgumentException(message);
+        };
+    }
+
+    @Benchmark
+    public ChatCommandParser.ParsedCommand parse() {
+        return ChatCommandParser.parse(content, PREFIXES);
+    }
+
+    @Benchmark
+    public void parseAndReadArguments(Blackhole blackhole) {
+        final var parsed = ChatCommandParser.parse(content, PREFIXES);
+        if (parsed == null) return;
+        blackhole.consume(parsed.name());
+        final var arguments = parsed.arguments();
+        for (int i = 0; i < arguments.size(); i++) blackhole.consume(arguments.get(i));
+    }
+
+    /**
+     * The path the parser replaced: a regex strips the prefix, another one splits the rest, and the arguments
+     * are a view over the split.
+     */
+    @Benchmark
+    public void split(Blackhole blackhole) {
+        for (var prefix : PREFIXES) {
+            if (!content.startsWith(prefix)) continue;
+            final var split = content.replaceFirst("(?i)".concat(Pattern.quote(prefix)), "").split("\\s+");
+            blackhole.consume(split[0].toLowerCase());
+            final var arguments = Arrays.asList(split).subList(1, split.length);
+            for (int i = 0; i < arguments.size(); i++) blackhole.consume(arguments.get(i));
+            return;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single pass of the swear word automaton over a normalized message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AhoCorasickBenchmark {
+
+    @Param({"1000", "10000"})
+    public int words;
+
+    @Param({"plain", "obfuscated", "long"})
+    public String message;
+
+    private AhoCorasick matcher;
+    private String text;
+    private int found;
+    private final AhoCorasick.MatchListener counter = (start, end, word) -> {
+        found++;
+        return true;
+    };
+
+    @Setup
+    public void setUp() {
+        matcher = AhoCorasick.compile(Messages.dictionary(words));
+        text = Messages.of(message);
+    }
+
+    @Benchmark
+    public int scan() {
+        final var normalized = TextNormalizer.normalize(text);
+        found = 0;
+        matcher.scan(normalized, 0, normalized.length(), counter);
+        return found;
+    }
+
+    @Benchmark
+    public int compile() {
+        return AhoCorasick.compile(Messages.dictionary(words)).size();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.List;
+
+/**
+ * Sample messages and word lists shared by the moderation benchmarks.
+ */
+public final class Messages {
+
+    private static final String PLAIN = "hey everyone, is anybody up for a game tonight? I can host after dinner";
+    private static final String OBFUSCATED = "h3y \u0415v\u0435r\u0443\u043en\u0435\u200B, what the fr1ck is this d@mn bug, it keeps crashing";
+
+    private Messages() {
+    }
+
+    /**
+     * Gets a sample message.
+     * @param kind {@code plain}, {@code obfuscated} or {@code long}.
+     * @return the message.
+     */
+    public static String of(String kind) {
+        return switch (kind) {
+            case "plain" -> PLAIN;
+            case "obfuscated" -> OBFUSCATED;
+            case "long" -> (PLAIN + ' ' + OBFUSCATED + ' ').repeat(25);
+            default -> throw new IllegalArgumentException("Unknown message " + kind);
+        };
+    }
+
+    /**
+     * Generates a word list with the same random words on every run, {@code damn} and {@code frick} included.
+     * @param size the number of words.
+     * @return the words.
+     */
+    public static List<String> dictionary(int size) {
+        final var random = new Random(42);
+        final var words = new ArrayList<String>(size);
+        words.add("damn");
+        words.add("frick");
+        while (words.size() < size) {
+            final var word = new char[4 + random.nextInt(6)];
+            for (int i = 0; i < word.length; i++) word[i] = (char) ('a' + random.nextInt(26));
+            words.add(new String(word));
+        }
+        return words;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services.configs;
+
+import tech.araopj.springpitzzahhbot.configs.ModerationConfig;
+import tech.araopj.springpitzzahhbot.moderation.AhoCorasick;
+import tech.araopj.springpitzzahhbot.moderation.WordOverlay;
+import tech.araopj.springpitzzahhbot.moderation.Messages;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+import java.util.Map;
+
+/**
+ * Measures the whole check of a message, normalization and both scans included.
+ * Run with {@code -prof gc}, a message without swear words should not allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCheckerServiceBenchmark {
+
+    private static final long GUILD_ID = 1L;
+
+    @Param({"plain", "obfuscated", "long"})
+    public String message;
+
+    private MessageCheckerService messageCheckerService;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        final var matcher = new AtomicReference<>(AhoCorasick.compile(Messages.dictionary(10_000)));
+        final Map<Long, WordOverlay> overlays = new ConcurrentHashMap<>(Map.of(GUILD_ID, WordOverlay.empty().deny("tonight")));
+        // outside of Spring the bean methods are plain methods, so the same instances are handed out here
+        messageCheckerService = new MessageCheckerService(new ModerationConfig(null) {
+            @Override
+            public AtomicReference<AhoCorasick> swearWordMatcher() {
+                return matcher;
+            }
+
+            @Override
+            public Map<Long, WordOverlay> guildWordOverlays() {
+                return overlays;
+            }
+        });
+        text = Messages.of(message);
+    }
+
+    @Benchmark
+    public boolean searchForBadWord() {
+        return messageCheckerService.searchForBadWord(GUILD_ID, text);
+    }
+
+    @Benchmark
+    public int findBadWords() {
+        return messageCheckerService.findBadWords(GUILD_ID, text).size();
+    }
+}
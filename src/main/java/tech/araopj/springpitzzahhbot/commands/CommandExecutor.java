@@ -0,0 +1,200 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands;
+
+import tech.araopj.springpitzzahhbot.configs.CommandExecutorConfig;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PreDestroy;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import java.util.Map;
+
+/**
+ * Runs commands on a pool of their own instead of the JDA event threads.
+ * <p>
+ * Commands that call other services block while they wait, so running them on the event thread
+ * stalls every other event of the shard. Each command also gets a bulkhead, a limit on how many of its
+ * invocations may run at the same time, so a flood of one command cannot take every thread of the pool.
+ * Invocations that run longer than the configured timeout are interrupted.
+ * The user is told that the invocation was stopped only once it returned, a command that ignores the
+ * interrupt is reported as still running.
+ */
+@Slf4j
+@Component
+public class CommandExecutor {
+
+    private static final long STOP_GRACE_IN_MILLIS = 1_000;
+
+    private final Map<String, Semaphore> bulkheads = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor pool;
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "command-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long timeoutInSeconds;
+
+    public CommandExecutor(CommandExecutorConfig commandExecutorConfig) {
+        final var counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                commandExecutorConfig.getThreads(),
+                commandExecutorConfig.getThreads(),
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(commandExecutorConfig.getQueueCapacity()),
+                runnable -> {
+                    final var thread = new Thread(runnable, "command-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        this.pool.allowCoreThreadTimeOut(true);
+        this.timeoutInSeconds = commandExecutorConfig.getTimeoutInSeconds();
+    }
+
+    /**
+     * Runs an invocation of a command on the command pool.
+     * @param name the name of the command, invocations with the same name share a bulkhead.
+     * @param maxConcurrency how many invocations of the command may run at the same time.
+     * @param invocation the invocation to run.
+     * @param onRejected called when the invocation is rejected, stopped after it timed out or still runs after the timeout, at most once.
+     */
+    public void execute(String name, int maxConcurrency, Runnable invocation, Consumer<Rejection> onRejected) {
+        final var bulkhead = bulkheads.computeIfAbsent(name, ignored -> new Semaphore(Math.max(maxConcurrency, 1)));
+        if (!bulkhead.tryAcquire()) {
+            log.warn("Rejected {}, {} invocations are already running", name, maxConcurrency);
+            onRejected.accept(Rejection.BULKHEAD_FULL);
+            return;
+        }
+        final var started = new AtomicBoolean();
+        final var finished = new AtomicBoolean();
+        final var released = new AtomicBoolean();
+        final var interrupted = new AtomicBoolean();
+        final var reported = new AtomicBoolean();
+        final var timeout = new AtomicReference<ScheduledFuture<?>>();
+        final Runnable release = () -> {
+            if (released.compareAndSet(false, true)) bulkhead.release();
+        };
+        final Consumer<Rejection> report = rejection -> {
+            if (reported.compareAndSet(false, true)) onRejected.accept(rejection);
+        };
+        final Runnable task = () -> {
+            started.set(true);
+            try {
+                invocation.run();
+            } catch (RuntimeException e) {
+                log.error("Command {} failed", name, e);
+            } finally {
+                finished.set(true);
+                final var scheduled = timeout.get();
+                if (scheduled != null) scheduled.cancel(false);
+                release.run();
+                // only now is it certain that the interrupted command stopped
+                if (interrupted.get()) report.accept(Rejection.TIMED_OUT);
+            }
+        };
+        try {
+            final var future = pool.submit(task);
+            timeout.set(watchdog.schedule(() -> {
+                if (finished.get() || !future.cancel(true)) return;
+                interrupted.set(true);
+                if (!started.get()) {
+                    // a task cancelled before it started never reaches its finally block
+                    release.run();
+                    report.accept(Rejection.TIMED_OUT);
+                    return;
+                }
+                log.warn("Command {} timed out after {} seconds, interrupted it", name, timeoutInSeconds);
+                if (finished.get()) {
+                    // stopped before the flag was set, so its finally block did not report it
+                    report.accept(Rejection.TIMED_OUT);
+                    return;
+                }
+                // a command that ignores the interrupt keeps running, tell the user instead of claiming it stopped
+                watchdog.schedule(() -> {
+                    if (!finished.get()) report.accept(Rejection.STILL_RUNNING);
+                }, STOP_GRACE_IN_MILLIS, TimeUnit.MILLISECONDS);
+            }, timeoutInSeconds, TimeUnit.SECONDS));
+            if (finished.get()) timeout.get().cancel(false);
+        } catch (RejectedExecutionException e) {
+            release.run();
+            log.warn("Rejected {}, the command pool is full", name);
+            onRejected.accept(Rejection.POOL_FULL);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        watchdog.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Why an invocation did not run to completion.
+     */
+    public enum Rejection {
+        /**
+         * Too many invocations of the same command are running.
+         */
+        BULKHEAD_FULL,
+        /**
+         * Every thread of the pool is busy and the queue is full.
+         */
+        POOL_FULL,
+        /**
+         * The invocation ran longer than the timeout, was interrupted and stopped.
+         */
+        TIMED_OUT,
+        /**
+         * The invocation ran longer than the timeout and kept running after it was interrupted.
+         */
+        STILL_RUNNING;
+
+        /**
+         * Explains the rejection to the user who invoked the command.
+         * @param command how the user invoked the command.
+         * @return a short message.
+         */
+        public String describe(String command) {
+            return switch (this) {
+                case BULKHEAD_FULL -> String.format("Too many people are using %s right now, please try again in a moment", command);
+                case POOL_FULL -> "The bot is busy right now, please try again in a moment";
+                case TIMED_OUT -> String.format("%s took too long and was stopped", command);
+                case STILL_RUNNING -> String.format("%s is taking longer than usual and is still working, it may answer late", command);
+            };
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands;
+
+import tech.araopj.springpitzzahhbot.exceptions.CommandAlreadyExistException;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable, case-insensitive lookup table of command names and aliases.
+ * <p>
+ * Names are stored lower cased in an open addressing table. A lookup hashes the name straight from the
+ * text it appears in, so finding the command of a message is a single probe and does not allocate.
+ * Adding a command returns a new table, so the table can be shared by every thread without locking.
+ * @param <T> the type of the commands.
+ */
+public final class CommandIndex<T> {
+
+    private static final CommandIndex<?> EMPTY = new CommandIndex<>(new String[8], new Object[8], List.of());
+
+    private final String[] keys;
+    private final Object[] values;
+    private final List<T> commands;
+
+    private CommandIndex(String[] keys, Object[] values, List<T> commands) {
+        this.keys = keys;
+        this.values = values;
+        this.commands = commands;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CommandIndex<T> empty() {
+        return (CommandIndex<T>) EMPTY;
+    }
+
+    /**
+     * Creates a new table with a command added to it.
+     * @param command the command to add.
+     * @param name the name of the command.
+     * @param aliases the other names the command can be called by.
+     * @return a new {@code CommandIndex}.
+     * @throws CommandAlreadyExistException if the name or one of the aliases is already taken.
+     */
+    public CommandIndex<T> with(T command, String name, Collection<String> aliases) {
+        final var names = new ArrayList<String>(aliases.size() + 1);
+        names.add(fold(name));
+        for (var alias : aliases) {
+            final var folded = fold(alias);
+            if (names.contains(folded)) throw new CommandAlreadyExistException(String.format("%s is used twice by %s", alias, name));
+            names.add(folded);
+        }
+        for (var key : names) {
+            final var taken = get(key, 0, key.length());
+            if (taken != null) throw new CommandAlreadyExistException(String.format("%s of %s is already used by another command", key, name));
+        }
+
+        var size = names.size();
+        for (var key : keys) if (key != null) size++;
+        var capacity = keys.length;
+        while (size * 2 > capacity) capacity *= 2;
+        final var newKeys = new String[capacity];
+        final var newValues = new Object[capacity];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) put(newKeys, newValues, keys[i], values[i]);
+        }
+        for (var key : names) put(newKeys, newValues, key, command);
+        final var newCommands = new ArrayList<>(commands);
+        newCommands.add(command);
+        return new CommandIndex<>(newKeys, newValues, List.copyOf(newCommands));
+    }
+
+    /**
+     * Finds a command by a name that appears in a text, ignoring case.
+     * @param text the text that contains the name.
+     * @param from the index of the first character of the name, inclusive.
+     * @param to the index after the last character of the name, exclusive.
+     * @return the command, or {@code null} if no command has that name or alias.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(CharSequence text, int from, int to) {
+        final var mask = keys.length - 1;
+        for (var slot = hash(text, from, to) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (matches(keys[slot], text, from, to)) return (T) values[slot];
+        }
+        return null;
+    }
+
+    /**
+     * Finds a command by its name or one of its aliases, ignoring case.
+     * @param name the name to look for.
+     * @return the command, or {@code null} if no command has that name or alias.
+     */
+    public T get(String name) {
+        return get(name, 0, name.length());
+    }
+
+    /**
+     * Gets every command in the order they were added.
+     * @return an unmodifiable list of the commands.
+     */
+    public List<T> commands() {
+        return commands;
+    }
+
+    private static void put(String[] keys, Object[] values, String key, Object value) {
+        final var mask = keys.length - 1;
+        var slot = hash(key, 0, key.length()) & mask;
+        while (keys[slot] != null) slot = (slot + 1) & mask;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    private static boolean matches(String key, CharSequence text, int from, int to) {
+        if (key.length() != to - from) return false;
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != Character.toLowerCase(text.charAt(from + i))) return false;
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence text, int from, int to) {
+        var hash = 0;
+        for (int i = from; i < to; i++) hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+        return hash ^ hash >>> 16;
+    }
+
+    private static String fold(String name) {
+        // folded one char at a time, the same way lookups fold the text
+        final var folded = new char[name.length()];
+        for (int i = 0; i < folded.length; i++) folded[i] = Character.toLowerCase(name.charAt(i));
+        return new String(folded);
+    }
+}
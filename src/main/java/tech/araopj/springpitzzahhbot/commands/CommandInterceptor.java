@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands;
+
+/**
+ * A stage that runs around the dispatch of a command, such as an authorization check, metrics or error mapping.
+ * <p>
+ * Interceptors run in their {@link org.springframework.core.annotation.Order} on the command thread, after the
+ * cooldowns and bulkheads of the command. An interceptor continues the dispatch by calling
+ * {@link Chain#proceed(Object)} and stops it by returning without calling it.
+ * @param <C> the context of the command.
+ */
+@FunctionalInterface
+public interface CommandInterceptor<C> {
+
+    /**
+     * Runs the stage.
+     * @param context the context of the command.
+     * @param chain the rest of the dispatch.
+     */
+    void intercept(C context, Chain<C> chain);
+
+    /**
+     * The name of the stage in the metrics.
+     * @return the simple name of the class unless overridden.
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * The stages after an interceptor, ending with the command itself.
+     * @param <C> the context of the command.
+     */
+    @FunctionalInterface
+    interface Chain<C> {
+        void proceed(C context);
+    }
+}
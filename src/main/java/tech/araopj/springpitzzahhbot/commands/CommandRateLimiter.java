@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands;
+
+import java.util.concurrent.ScheduledExecutorService;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cooldowns of chat and slash commands, checked before a command is handed to the {@link CommandExecutor}.
+ * <p>
+ * Every command has a bucket per user and a bucket per guild, sized by the limits the command declares.
+ * The user bucket is checked first, so a single user hitting their own limit does not use up the guild's, and
+ * the token taken from the user is given back when the guild's bucket is empty.
+ */
+@Slf4j
+@Component
+public class CommandRateLimiter {
+
+    private final TokenBuckets buckets = new TokenBuckets(Runtime.getRuntime().availableProcessors());
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "rate-limit-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CommandRateLimiter() {
+        sweeper.scheduleWithFixedDelay(() -> buckets.purge(System.currentTimeMillis()), 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Takes a token from the user and the guild buckets of a command, or from neither.
+     * @param command the name of the command, prefixed by its kind so chat and slash commands do not share buckets.
+     * @param userLimit the limit per user.
+     * @param guildLimit the limit per guild.
+     * @param guildId the id of the guild the command was used in, {@code 0} outside guilds.
+     * @param userId the id of the user who used the command.
+     * @return {@code 0} if the command may run, otherwise how many milliseconds until it may.
+     */
+    public long tryAcquire(String command, RateLimit userLimit, RateLimit guildLimit, long guildId, long userId) {
+        final var now = System.currentTimeMillis();
+        final var key = key(command);
+        final var userWait = buckets.tryAcquire(key, userId, userLimit, now);
+        if (userWait > 0) return userWait;
+        if (guildId == 0) return 0;
+        // the guild key is the command key with the low bit flipped, so it never equals a user key of the command
+        final var guildWait = buckets.tryAcquire(key ^ 1, guildId, guildLimit, now);
+        if (guildWait > 0) buckets.release(key, userId, userLimit);
+        return guildWait;
+    }
+
+    /**
+     * Explains a rejection to the user who invoked the command.
+     * @param command how the user invoked the command.
+     * @param waitInMillis how long until the command may be used again.
+     * @return a short message.
+     */
+    public static String describe(String command, long waitInMillis) {
+        return String.format("You are using %s too fast, try again in %d seconds", command, Math.max((waitInMillis + 999) / 1000, 1));
+    }
+
+    private static long key(String command) {
+        var hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < command.length(); i++) hash = (hash ^ command.charAt(i)) * 0x100000001B3L;
+        return hash & ~1L;
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+}
@@ -25,10 +25,15 @@
 package tech.araopj.springpitzzahhbot.commands;
 
 import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommandInterceptor;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommandInterceptor;
 import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommand;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -51,11 +56,54 @@ public class CommandsConfig {
     @Value("${bot.commands.rules}")
     private String rulesCommand;
 
+    @Value("${bot.commands.guild-prefixes-directory:guild-prefixes}")
+    private String guildPrefixesDirectory;
+
+    @Value("${bot.commands.command-registrations-path:command-registrations.properties}")
+    private String commandRegistrationsPath;
+
+    /**
+     * The guild to register the slash commands in instead of globally, {@code 0} registers them globally.
+     */
+    @Value("${bot.commands.development-guild-id:0}")
+    private long developmentGuildId;
+
+    /**
+     * Whether guilds are cleared once of the guild commands older versions of the bot registered in every guild,
+     * which Discord shows next to the global commands.
+     */
+    @Value("${bot.commands.clear-legacy-guild-commands:true}")
+    private boolean clearLegacyGuildCommands;
+
     @Bean
     public List<ChatCommand> getChatCommands() {
         return new ArrayList<>();
     }
 
+    @Bean
+    public AtomicReference<CommandIndex<ChatCommand>> getChatCommandIndex() {
+        return new AtomicReference<>(CommandIndex.empty());
+    }
+
+    @Bean
+    public Map<Long, List<String>> getGuildPrefixes() {
+        return new ConcurrentHashMap<>();
+    }
+
+    @Bean
+    public InterceptorChain<tech.araopj.springpitzzahhbot.commands.chat_commands.CommandContext> getChatCommandChain(
+            ObjectProvider<ChatCommandInterceptor> interceptors
+    ) {
+        return new InterceptorChain<>(interceptors.orderedStream().toList());
+    }
+
+    @Bean
+    public InterceptorChain<tech.araopj.springpitzzahhbot.commands.slash_commands.CommandContext> getSlashCommandChain(
+            ObjectProvider<SlashCommandInterceptor> interceptors
+    ) {
+        return new InterceptorChain<>(interceptors.orderedStream().toList());
+    }
+
     @Bean
     public Map<String, SlashCommand> getSlashCommands() {
         return new HashMap<>();
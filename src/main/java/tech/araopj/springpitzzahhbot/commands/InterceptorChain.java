@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands;
+
+import tech.araopj.springpitzzahhbot.moderation.LatencyRecorder;
+import java.util.function.Consumer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dispatches commands through an ordered list of {@link CommandInterceptor}s and times every stage.
+ * <p>
+ * The time of a stage excludes the stages after it, so the stages add up to the whole dispatch. The command
+ * itself is the last stage. Without interceptors the command is called directly, and timing it does not
+ * allocate.
+ * @param <C> the context of the command.
+ */
+public final class InterceptorChain<C> {
+
+    private static final String COMMAND_STAGE = "Command";
+
+    private final CommandInterceptor<C>[] interceptors;
+    private final LatencyRecorder[] latencies;
+
+    @SuppressWarnings("unchecked")
+    public InterceptorChain(List<? extends CommandInterceptor<C>> interceptors) {
+        this.interceptors = interceptors.toArray(CommandInterceptor[]::new);
+        this.latencies = new LatencyRecorder[this.interceptors.length + 1];
+        for (int i = 0; i < latencies.length; i++) latencies[i] = new LatencyRecorder();
+    }
+
+    /**
+     * Runs a command through the interceptors.
+     * @param context the context of the command.
+     * @param command the command, called by the last interceptor.
+     */
+    public void dispatch(C context, Consumer<C> command) {
+        if (interceptors.length == 0) {
+            final var start = System.nanoTime();
+            try {
+                command.accept(context);
+            } finally {
+                latencies[0].record(System.nanoTime() - start);
+            }
+        } else new Dispatch(command).proceed(context);
+    }
+
+    /**
+     * Gets the latency of every stage, in the order they run.
+     * @return the stages, ending with the command itself.
+     */
+    public List<Stage> stages() {
+        final var stages = new ArrayList<Stage>(latencies.length);
+        for (int i = 0; i < interceptors.length; i++) stages.add(new Stage(interceptors[i].name(), latencies[i]));
+        stages.add(new Stage(COMMAND_STAGE, latencies[interceptors.length]));
+        return stages;
+    }
+
+    /**
+     * The latency of a stage.
+     * @param name the name of the interceptor, or {@code Command} for the command itself.
+     * @param latency the time spent in the stage itself.
+     */
+    public record Stage(String name, LatencyRecorder latency) { }
+
+    private final class Dispatch implements CommandInterceptor.Chain<C> {
+
+        private final Consumer<C> command;
+        private int next;
+        // the time the stage after the running one took, including the stages after it
+        private long downstreamNanos;
+
+        private Dispatch(Consumer<C> command) {
+            this.command = command;
+        }
+
+        @Override
+        public void proceed(C context) {
+            final var stage = next++;
+            if (stage > interceptors.length) throw new IllegalStateException("The command was already dispatched");
+            downstreamNanos = 0;
+            final var start = System.nanoTime();
+            try {
+                if (stage == interceptors.length) command.accept(context);
+                else interceptors[stage].intercept(context, this);
+            } finally {
+                final var elapsed = System.nanoTime() - start;
+                latencies[stage].record(elapsed - downstreamNanos);
+                downstreamNanos = elapsed;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands;
+
+import java.time.Duration;
+
+/**
+ * How often a command may be used.
+ * @param permits how many invocations are allowed in a row before the limit applies.
+ * @param period the time it takes to earn back all the permits.
+ */
+public record RateLimit(int permits, Duration period) {
+
+    public static final RateLimit NONE = new RateLimit(0, Duration.ZERO);
+
+    public static RateLimit of(int permits, Duration period) {
+        return new RateLimit(permits, period);
+    }
+
+    public boolean isLimited() {
+        return permits > 0 && !period.isZero();
+    }
+
+    /**
+     * The time it takes to earn back one permit.
+     * @return the interval in milliseconds.
+     */
+    public long intervalInMillis() {
+        return Math.max(period.toMillis() / permits, 1);
+    }
+}
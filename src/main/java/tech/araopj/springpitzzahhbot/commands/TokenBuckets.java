@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands;
+
+/**
+ * Token buckets keyed by a pair of longs, each one stored as a single {@code long}.
+ * <p>
+ * Buckets follow the generic cell rate algorithm: instead of a token count and a refill time, a bucket only
+ * remembers the time at which it will be full again. A bucket that is full is the same as a missing one, so
+ * full buckets are dropped by {@link #purge(long)} and only keys that were used recently take up memory.
+ * The buckets are spread over lock-striped open addressing tables of primitive arrays.
+ */
+public final class TokenBuckets {
+
+    private final Stripe[] stripes;
+
+    public TokenBuckets(int concurrency) {
+        final var count = Integer.highestOneBit(Math.max(concurrency, 1) * 4 - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) stripes[i] = new Stripe();
+    }
+
+    /**
+     * Takes a token from a bucket.
+     * @param first the first part of the key.
+     * @param second the second part of the key.
+     * @param limit the size and refill rate of the bucket.
+     * @param timeInMillis the current time.
+     * @return {@code 0} if a token was taken, otherwise how many milliseconds until one is available.
+     */
+    public long tryAcquire(long first, long second, RateLimit limit, long timeInMillis) {
+        if (!limit.isLimited()) return 0;
+        final var hash = hash(first, second);
+        return stripes[(hash >>> 24) & (stripes.length - 1)].tryAcquire(first, second, hash, limit, timeInMillis);
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire}, for when what it was taken for did not happen after all.
+     * @param first the first part of the key.
+     * @param second the second part of the key.
+     * @param limit the limit the token was taken with.
+     */
+    public void release(long first, long second, RateLimit limit) {
+        if (!limit.isLimited()) return;
+        final var hash = hash(first, second);
+        stripes[(hash >>> 24) & (stripes.length - 1)].release(first, second, hash, limit.intervalInMillis());
+    }
+
+    /**
+     * Removes the buckets that are full again.
+     * @param timeInMillis the current time.
+     * @return the number of removed buckets.
+     */
+    public int purge(long timeInMillis) {
+        var purged = 0;
+        for (var stripe : stripes) purged += stripe.purge(timeInMillis);
+        return purged;
+    }
+
+    public int size() {
+        var size = 0;
+        for (var stripe : stripes) size += stripe.size();
+        return size;
+    }
+
+    private static int hash(long first, long second) {
+        var hash = first * 0x9E3779B97F4A7C15L + second;
+        hash = (hash ^ hash >>> 32) * 0xD6E8FEB86659FD93L;
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    private static final class Stripe {
+
+        private static final int MIN_CAPACITY = 16;
+
+        private long[] firsts = new long[MIN_CAPACITY];
+        private long[] seconds = new long[MIN_CAPACITY];
+        // the time the bucket is full again, 0 marks an empty slot
+        private long[] fullAt = new long[MIN_CAPACITY];
+        private int size;
+
+        synchronized long tryAcquire(long first, long second, int hash, RateLimit limit, long timeInMillis) {
+            var slot = find(first, second, hash);
+            final var interval = limit.intervalInMillis();
+            final var tolerance = interval * (limit.permits() - 1);
+            final var full = fullAt[slot] == 0 ? timeInMillis : Math.max(fullAt[slot], timeInMillis);
+            final var wait = full - tolerance - timeInMillis;
+            if (wait > 0) return wait;
+            if (fullAt[slot] == 0) {
+                if ((size + 1) * 2 > fullAt.length) {
+                    resize(fullAt.length * 2);
+                    slot = find(first, second, hash);
+                }
+                firsts[slot] = first;
+                seconds[slot] = second;
+                size++;
+            }
+            fullAt[slot] = full + interval;
+            return 0;
+        }
+
+        synchronized void release(long first, long second, int hash, long interval) {
+            final var slot = find(first, second, hash);
+            // a bucket that was purged in the meantime is full already
+            if (fullAt[slot] != 0) fullAt[slot] = Math.max(fullAt[slot] - interval, 1);
+        }
+
+        synchronized int purge(long timeInMillis) {
+            var live = 0;
+            for (int i = 0; i < fullAt.length; i++) {
+                if (fullAt[i] == 0) continue;
+                if (fullAt[i] <= timeInMillis) fullAt[i] = 0;
+                else live++;
+            }
+            final var purged = size - live;
+            var capacity = MIN_CAPACITY;
+            while (live * 2 > capacity) capacity *= 2;
+            resize(capacity);
+            size = live;
+            return purged;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private int find(long first, long second, int hash) {
+            final var mask = fullAt.length - 1;
+            var slot = hash & mask;
+            while (fullAt[slot] != 0 && (firsts[slot] != first || seconds[slot] != second)) slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        private void resize(int capacity) {
+            final var oldFirsts = firsts;
+            final var oldSeconds = seconds;
+            final var oldFullAt = fullAt;
+            firsts = new long[capacity];
+            seconds = new long[capacity];
+            fullAt = new long[capacity];
+            for (int i = 0; i < oldFullAt.length; i++) {
+                if (oldFullAt[i] == 0) continue;
+                var slot = find(oldFirsts[i], oldSeconds[i], hash(oldFirsts[i], oldSeconds[i]));
+                firsts[slot] = oldFirsts[i];
+                seconds[slot] = oldSeconds[i];
+                fullAt[slot] = oldFullAt[i];
+            }
+        }
+    }
+}
@@ -23,8 +23,10 @@
  */
 package tech.araopj.springpitzzahhbot.commands.chat_commands;
 
+import tech.araopj.springpitzzahhbot.commands.RateLimit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -58,4 +60,31 @@ public interface ChatCommand {
         return List::of;
     }
 
+    /**
+     * Supplies how many invocations of the chat_command may run at the same time.
+     * @return a {@code Supplier<Integer>}, 4 unless the chat_command needs a tighter limit.
+     * @see tech.araopj.springpitzzahhbot.commands.CommandExecutor
+     */
+    default Supplier<Integer> maxConcurrency() {
+        return () -> 4;
+    }
+
+    /**
+     * Supplies how often a single user may use the chat_command.
+     * @return a {@code Supplier<RateLimit>}, 5 uses every 10 seconds unless the chat_command needs a tighter limit.
+     * @see tech.araopj.springpitzzahhbot.commands.CommandRateLimiter
+     */
+    default Supplier<RateLimit> userRateLimit() {
+        return () -> RateLimit.of(5, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Supplies how often the chat_command may be used in a guild, by all of its members together.
+     * @return a {@code Supplier<RateLimit>}, unlimited unless the chat_command needs a limit.
+     * @see tech.araopj.springpitzzahhbot.commands.CommandRateLimiter
+     */
+    default Supplier<RateLimit> guildRateLimit() {
+        return () -> RateLimit.NONE;
+    }
+
 }
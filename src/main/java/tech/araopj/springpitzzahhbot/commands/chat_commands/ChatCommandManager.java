@@ -23,66 +23,98 @@
  */
 package tech.araopj.springpitzzahhbot.commands.chat_commands;
 
-import tech.araopj.springpitzzahhbot.exceptions.CommandAlreadyExistException;
 import tech.araopj.springpitzzahhbot.services.CommandsService;
+import tech.araopj.springpitzzahhbot.commands.CommandRateLimiter;
+import tech.araopj.springpitzzahhbot.commands.InterceptorChain;
+import tech.araopj.springpitzzahhbot.commands.CommandExecutor;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommandParser.ParsedCommand;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.lang.NonNull;
 import lombok.extern.slf4j.Slf4j;
-import java.util.regex.Pattern;
 import java.util.Optional;
-import java.util.Arrays;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 @Slf4j
 @Component
-public record ChatCommandManager(CommandsService commandsService) {
+public record ChatCommandManager(
+        CommandsService commandsService,
+        CommandExecutor commandExecutor,
+        CommandRateLimiter commandRateLimiter,
+        InterceptorChain<CommandContext> chatCommandChain
+) {
 
     /**
      * Adds a chat_command.
      * @param chatCommand the chat_command to add.
      */
-    public void addCommand(ChatCommand chatCommand) {
-        var found = commandsService
-                .chatCommands()
-                .stream()
-                .anyMatch(c -> c.name().get().equalsIgnoreCase(chatCommand.name().get()));
-        log.info("Does {} already added: {}", chatCommand.name().get(), found);
-        if (found) throw new CommandAlreadyExistException("A ChatCommand With this name is already present!");
+    public synchronized void addCommand(ChatCommand chatCommand) {
+        final var index = commandsService.chatCommandIndex();
+        // throws CommandAlreadyExistException if the name or an alias is taken
+        index.set(index.get().with(chatCommand, chatCommand.name().get(), chatCommand.aliases().get()));
         log.info("Adding chat_command: {}", chatCommand.name().get());
         commandsService.chatCommands().add(chatCommand);
     }
 
     /**
-     * Gets a chat_command from the list.
+     * Gets a chat_command by its name or one of its aliases, ignoring case.
      * accepts a String the name of the chat_command
      * returns a {@code ChatCommand}.
      */
     public Optional<ChatCommand> getChatCommandByName(String name) {
-        return commandsService
-                .chatCommands()
-                .stream()
-                .filter(c -> c.name().get().equalsIgnoreCase(name.toLowerCase()) || c.aliases().get().contains(name.toLowerCase()))
-                .findAny();
+        return Optional.ofNullable(commandsService.chatCommandIndex().get().get(name));
+    }
+
+    /**
+     * Gets a chat_command by a name that appears in a text, without allocating.
+     * @param text the text that contains the name.
+     * @param from the index of the first character of the name, inclusive.
+     * @param to the index after the last character of the name, exclusive.
+     * @return the chat_command, or {@code null} if there is none with that name or alias.
+     */
+    public ChatCommand getChatCommandByName(CharSequence text, int from, int to) {
+        return commandsService.chatCommandIndex().get().get(text, from, to);
     }
 
 
     /**
      * Handles commands.
      * @param event the event that happened.
+     * @param parsed the prefix, name and arguments of the command.
      */
-    public void handle(@NonNull MessageReceivedEvent event) {
-        final var SPLIT = event.getMessage().getContentRaw()
-                .replaceFirst("(?i)".concat(Pattern.quote(commandsService.getPrefix())), "")
-                .split("\\s+");
-        final var INVOKED = SPLIT[0].toLowerCase();
-        final var COMMAND = getChatCommandByName(INVOKED);
+    public void handle(@NonNull MessageReceivedEvent event, @NonNull ParsedCommand parsed) {
+        final var COMMAND = getChatCommandByName(parsed.content(), parsed.nameStart(), parsed.nameEnd());
+        if (COMMAND == null) {
+            event.getChannel().sendTyping().queue();
+            event.getMessage().reply(String.format("%s is not a chat_command", parsed.name())).queue(
+                    e -> e.getChannel().sendMessage(parsed.prefix().concat("help")).queue(m -> m.delete().queue())
+            );
+            return;
+        }
+        // the cooldowns and the bulkhead share the key, prefixed so chat and slash commands do not share them
+        final var KEY = "chat:" + COMMAND.name().get();
+        final var wait = commandRateLimiter.tryAcquire(
+                KEY,
+                COMMAND.userRateLimit().get(),
+                COMMAND.guildRateLimit().get(),
+                event.isFromGuild() ? event.getGuild().getIdLong() : 0,
+                event.getAuthor().getIdLong()
+        );
+        if (wait > 0) {
+            // chat has no ephemeral replies, so the notice removes itself once the cooldown is over
+            event.getMessage()
+                    .reply(CommandRateLimiter.describe(parsed.prefix() + parsed.name(), wait))
+                    .queue(m -> m.delete().queueAfter(wait, MILLISECONDS));
+            return;
+        }
         event.getChannel().sendTyping().queue();
-        final var ARGS = Arrays.asList(SPLIT).subList(1, SPLIT.length);
-        final var COMMAND_CONTEXT = new CommandContext(event, ARGS);
-        COMMAND.ifPresentOrElse(chatCommand -> chatCommand.handle().accept(COMMAND_CONTEXT),
-                () -> event.getMessage().reply(String.format("%s is not a chat_command", INVOKED)).queue(
-                e -> e.getChannel().sendMessage(";help").queue(m -> m.delete().queue())
-        ));
+        commandExecutor.execute(
+                KEY,
+                COMMAND.maxConcurrency().get(),
+                () -> chatCommandChain.dispatch(new CommandContext(event, parsed.arguments()), COMMAND.handle()),
+                rejection -> event.getMessage().reply(rejection.describe(parsed.prefix() + parsed.name())).queue()
+        );
     }
 
 }
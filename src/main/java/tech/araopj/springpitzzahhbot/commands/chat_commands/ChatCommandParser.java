@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.chat_commands;
+
+import java.util.List;
+
+/**
+ * Splits a prefixed message into the name of the chat_command and its arguments.
+ * <p>
+ * The message is scanned once by hand, without regular expressions, and nothing is copied out of it
+ * until a command reads an argument.
+ */
+public final class ChatCommandParser {
+
+    private ChatCommandParser() {
+    }
+
+    /**
+     * Parses a message.
+     * @param content the raw message.
+     * @param prefix the prefix of the chat_commands, matched ignoring case.
+     * @return the parsed command, or {@code null} if the message does not start with the prefix.
+     */
+    public static ParsedCommand parse(String content, String prefix) {
+        if (!content.regionMatches(true, 0, prefix, 0, prefix.length())) return null;
+        final var length = content.length();
+        final var prefixEnd = prefix.length();
+        var nameStart = prefixEnd;
+        while (nameStart < length && Character.isWhitespace(content.charAt(nameStart))) nameStart++;
+        var nameEnd = nameStart;
+        while (nameEnd < length && !Character.isWhitespace(content.charAt(nameEnd))) nameEnd++;
+        return new ParsedCommand(content, prefixEnd, nameStart, nameEnd);
+    }
+
+    /**
+     * Parses a message that may start with any of several prefixes.
+     * @param content the raw message.
+     * @param prefixes the prefixes of the chat_commands, the first one that matches is used.
+     * @return the parsed command, or {@code null} if the message does not start with any of the prefixes.
+     */
+    public static ParsedCommand parse(String content, List<String> prefixes) {
+        for (int i = 0; i < prefixes.size(); i++) {
+            final var parsed = parse(content, prefixes.get(i));
+            if (parsed != null) return parsed;
+        }
+        return null;
+    }
+
+    /**
+     * A prefixed message.
+     * @param content the raw message.
+     * @param prefixEnd the index after the last character of the prefix, exclusive.
+     * @param nameStart the index of the first character of the name, inclusive.
+     * @param nameEnd the index after the last character of the name, exclusive.
+     */
+    public record ParsedCommand(String content, int prefixEnd, int nameStart, int nameEnd) {
+
+        public String prefix() {
+            return content.substring(0, prefixEnd);
+        }
+
+
+        public String name() {
+            return content.substring(nameStart, nameEnd);
+        }
+
+        /**
+         * Splits the arguments that follow the name.
+         * @return the arguments.
+         */
+        public CommandArguments arguments() {
+            return new CommandArguments(content, nameEnd);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.chat_commands;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * The arguments of a chat_command, as a view over the message they were sent in.
+ * <p>
+ * Only the bounds of each argument are recorded when the message is parsed, the {@code String} of an
+ * argument is created when it is first read. Arguments are separated by whitespace, an argument wrapped in
+ * double quotes may contain whitespace and {@code \"} for a literal quote.
+ */
+public final class CommandArguments extends AbstractList<String> implements RandomAccess {
+
+    private final String content;
+    private int[] bounds = new int[12];
+    private String[] values;
+    private int size;
+
+    /**
+     * Splits the arguments of a message.
+     * @param content the raw message.
+     * @param from the index the arguments start at.
+     */
+    CommandArguments(String content, int from) {
+        this.content = content;
+        final var length = content.length();
+        var i = from;
+        while (true) {
+            while (i < length && Character.isWhitespace(content.charAt(i))) i++;
+            if (i == length) break;
+            final var rawStart = i;
+            int start, end;
+            var escaped = false;
+            if (content.charAt(i) == '"') {
+                start = ++i;
+                while (i < length && content.charAt(i) != '"') {
+                    if (content.charAt(i) == '\\' && i + 1 < length) {
+                        escaped = true;
+                        i++;
+                    }
+                    i++;
+                }
+                end = i;
+                // an unterminated quote runs to the end of the message
+                if (i < length) i++;
+            } else {
+                start = i;
+                while (i < length && !Character.isWhitespace(content.charAt(i))) i++;
+                end = i;
+            }
+            add(rawStart, start, escaped ? ~end : end);
+        }
+        this.values = new String[size];
+    }
+
+    private void add(int rawStart, int start, int end) {
+        if (size * 3 == bounds.length) bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        bounds[size * 3] = rawStart;
+        bounds[size * 3 + 1] = start;
+        bounds[size * 3 + 2] = end;
+        size++;
+    }
+
+    @Override
+    public String get(int index) {
+        final var value = values[checked(index)];
+        if (value != null) return value;
+        final var start = bounds[index * 3 + 1];
+        final var end = bounds[index * 3 + 2];
+        return values[index] = end >= 0 ? content.substring(start, end) : unescape(start, ~end);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the index in the message where an argument starts, its opening quote included.
+     * @param index the index of the argument.
+     * @return the index in the raw message.
+     */
+    public int start(int index) {
+        return bounds[checked(index) * 3];
+    }
+
+    /**
+     * Gets the rest of the message starting at an argument, as it was typed.
+     * Useful for commands whose last argument is free text that should keep its whitespace.
+     * @param index the index of the first argument to include.
+     * @return the raw text from the argument to the end of the message.
+     */
+    public String remainder(int index) {
+        return content.substring(start(index)).strip();
+    }
+
+    private int checked(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return index;
+    }
+
+    private String unescape(int start, int end) {
+        final var builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            var c = content.charAt(i);
+            if (c == '\\' && i + 1 < end) c = content.charAt(++i);
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
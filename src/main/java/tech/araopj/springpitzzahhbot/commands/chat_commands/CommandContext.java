@@ -29,7 +29,7 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import java.util.List;
 
-public record CommandContext(MessageReceivedEvent event, List<String> args) implements ChatCommandContext {
+public record CommandContext(MessageReceivedEvent event, CommandArguments args) implements ChatCommandContext {
 
     @Override
     @NotNull
@@ -28,17 +28,17 @@ import tech.araopj.springpitzzahhbot.services.MessageUtilService;
 import tech.araopj.springpitzzahhbot.commands.chat_commands.CommandContext;
 import static net.dv8tion.jda.api.interactions.components.ActionRow.of;
 import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommand;
-import tech.araopj.springpitzzahhbot.services.CommandsService;
-import org.springframework.stereotype.Component;
+import tech.araopj.springpitzzahhbot.services.PrefixService;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.BotChatCommand;
 import org.springframework.lang.NonNull;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import static java.awt.Color.RED;
 
-@Component
+@BotChatCommand
 public record FormatChatCommand(
         MessageUtilService messageUtilService,
-        CommandsService commandsService
+        PrefixService prefixService
 ) implements ChatCommand {
 
     /**
@@ -57,7 +57,11 @@ public record FormatChatCommand(
                     context.event(),
                     RED,
                     "Missing Content",
-                    "Please provide the language and the content to format."
+                    String.format(
+                            "Please provide the language and the content to format.\nUsage: %s%s [language] [content]",
+                            prefixService.getPrefix(context.getGuild().getIdLong()),
+                            name().get()
+                    )
             );
 
             messageUtilService
@@ -70,9 +74,7 @@ public record FormatChatCommand(
             return;
         }
         final var language = contextArgs.get(0);
-        final var contentRaw = context.getEvent().getMessage().getContentRaw();
-        final var index = contentRaw.indexOf(language) + language.length();
-        final var content = contentRaw.substring(index).trim();
+        final var content = context.args().remainder(1);
         context.getEvent()
                 .getMessage()
                 .reply("```" + language + "\n" + content + "```")
@@ -113,6 +115,6 @@ public record FormatChatCommand(
     @Override
     public Supplier<String> description() {
         return () -> "Formats a code.\n" +
-                "Usage: ".concat(commandsService.getPrefix().concat(name().get())).concat(" [language] [content]");
+                "Usage: ".concat(name().get()).concat(" [language] [content]");
     }
 }
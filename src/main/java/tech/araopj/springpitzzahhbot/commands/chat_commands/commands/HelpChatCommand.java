@@ -28,7 +28,8 @@ import tech.araopj.springpitzzahhbot.services.MessageUtilService;
 import tech.araopj.springpitzzahhbot.commands.chat_commands.CommandContext;
 import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommand;
 import tech.araopj.springpitzzahhbot.services.CommandsService;
-import org.springframework.stereotype.Component;
+import tech.araopj.springpitzzahhbot.services.PrefixService;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.BotChatCommand;
 
 import static java.lang.String.format;
 
@@ -39,10 +40,11 @@ import java.time.ZoneId;
 import java.util.List;
 import java.awt.*;
 
-@Component
+@BotChatCommand
 public record HelpChatCommand(
         MessageUtilService messageUtilService,
         CommandsService commandsService,
+        PrefixService prefixService,
         ChatCommandManager chatCommandManager
 ) implements ChatCommand {
     /**
@@ -67,7 +69,7 @@ public record HelpChatCommand(
             for (ChatCommand chatCommand : commandsService.chatCommands()) {
                 messageUtilService
                         .getEmbedBuilder()
-                        .addField(commandsService.getPrefix().concat(chatCommand.name().get()), chatCommand.description().get(), true);
+                        .addField(prefixService.getPrefix(context.getGuild().getIdLong()).concat(chatCommand.name().get()), chatCommand.description().get(), true);
             }
             channel.sendMessageEmbeds(messageUtilService.getEmbedBuilder().build()).queue();
             return;
@@ -87,7 +89,7 @@ public record HelpChatCommand(
             messageUtilService.generateBotSentMessage(
                     context.getEvent(),
                     Color.CYAN.brighter(),
-                    COMMAND.get().name().get(),
+                    prefixService.getPrefix(context.getGuild().getIdLong()).concat(COMMAND.get().name().get()),
                     COMMAND.get().description().get(),
                     LocalDateTime.now(ZoneId.of("UTC")),
                     format("Created by %s", context.getGuild().getJDA().getSelfUser().getAsTag())
@@ -125,7 +127,7 @@ public record HelpChatCommand(
     @Override
     public Supplier<String> description() {
         return () -> "Shows the list of commands in the bot\n" +
-                "Usage: ".concat(commandsService.getPrefix()).concat("help [chat_command]");
+                "Usage: help [chat_command]";
     }
 
     /**
@@ -25,11 +25,11 @@ package tech.araopj.springpitzzahhbot.commands.chat_commands.commands;
 
 import tech.araopj.springpitzzahhbot.commands.chat_commands.CommandContext;
 import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommand;
-import org.springframework.stereotype.Component;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.BotChatCommand;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-@Component
+@BotChatCommand
 public class PingChatCommand implements ChatCommand {
 
     /**
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.chat_commands.commands;
+
+import tech.araopj.springpitzzahhbot.listeners.CommandRegistrationCoordinator;
+import tech.araopj.springpitzzahhbot.services.CommandRegistrationService;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.CommandContext;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommand;
+import tech.araopj.springpitzzahhbot.commands.RateLimit;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.BotChatCommand;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import java.time.Duration;
+
+@Slf4j
+@BotChatCommand
+public record ReloadCommandsChatCommand(
+        CommandRegistrationCoordinator commandRegistrationCoordinator,
+        CommandRegistrationService commandRegistrationService
+) implements ChatCommand {
+
+    /**
+     * Contains the process to be handled.
+     * Rebuilds the slash commands and uploads them if they changed, only the owner of the bot may do this
+     * because the commands are shared by every guild.
+     *
+     * @param context a {@code CommandContext}.
+     * @see CommandContext
+     */
+    public void process(CommandContext context) {
+        final var event = context.getEvent();
+        event.getJDA().retrieveApplicationInfo().queue(info -> {
+            if (info.getOwner().getIdLong() != event.getAuthor().getIdLong()) {
+                event.getMessage().reply("Only the owner of the bot can reload the slash commands").queue();
+                return;
+            }
+            reload(event);
+        }, e -> {
+            log.error("Cannot retrieve the owner of the bot", e);
+            event.getMessage().reply("Cannot check who owns the bot, try again later").queue();
+        });
+    }
+
+    private void reload(MessageReceivedEvent event) {
+        final var hash = commandRegistrationService.reload();
+        commandRegistrationCoordinator.register(event.getJDA()).whenComplete((uploaded, e) -> {
+            if (e != null) {
+                log.error("Cannot reload the slash commands", e);
+                event.getMessage().reply("Cannot upload the slash commands, see the logs").queue();
+            } else if (uploaded) event.getMessage().replyFormat("Uploaded the slash commands `%.12s`", hash).queue();
+            else event.getMessage().replyFormat("Slash commands `%.12s` are already up to date", hash).queue();
+        });
+    }
+
+    /**
+     * Handles the chat_command.
+     * Accepts a {@code CommandContext}.
+     *
+     * @see CommandContext
+     */
+    @Override
+    public Consumer<CommandContext> handle() {
+        return this::process;
+    }
+
+    @Override
+    public Supplier<String> name() {
+        return () -> "reload-commands";
+    }
+
+    /**
+     * The description of the chat_command.
+     *
+     * @return the description of the chat_command.
+     */
+    @Override
+    public Supplier<String> description() {
+        return () -> "Uploads the slash commands again if they changed, owner of the bot only.";
+    }
+
+    /**
+     * A reload may upload every slash command, so reloads are kept rare.
+     *
+     * @return a {@code Supplier<RateLimit>}.
+     */
+    @Override
+    public Supplier<RateLimit> userRateLimit() {
+        return () -> RateLimit.of(1, Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.chat_commands.commands;
+
+import tech.araopj.springpitzzahhbot.services.configs.ModerationPipelineService;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.CommandContext;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommand;
+import tech.araopj.springpitzzahhbot.services.MessageUtilService;
+import tech.araopj.springpitzzahhbot.commands.InterceptorChain;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.BotChatCommand;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.Permission;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import static java.lang.String.format;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.awt.*;
+
+@BotChatCommand
+public record StatsChatCommand(
+        ModerationPipelineService moderationPipelineService,
+        MessageUtilService messageUtilService,
+        InterceptorChain<tech.araopj.springpitzzahhbot.commands.slash_commands.CommandContext> slashCommandChain,
+        InterceptorChain<CommandContext> chatCommandChain
+) implements ChatCommand {
+
+    // Discord rejects embeds with more fields
+    private static final int MAX_FIELDS = 25;
+
+    /**
+     * Contains the process to be handled.
+     *
+     * @param context a {@code CommandContext}.
+     * @see CommandContext
+     */
+    public void process(CommandContext context) {
+        final var event = context.getEvent();
+        final var member = event.getMember();
+        // the stats cover every guild, so only the admins of a guild may see them and not in direct messages
+        if (member == null || !member.isOwner() && !member.hasPermission(Permission.MANAGE_SERVER)) {
+            event.getMessage().reply("Only the admins of a server can see the moderation stats").queue();
+            return;
+        }
+        final var metrics = moderationPipelineService.metrics();
+        messageUtilService.generateBotSentMessage(
+                event,
+                Color.CYAN,
+                "Moderation Stats",
+                "Messages checked by the moderation pipeline and time spent dispatching commands",
+                LocalDateTime.now(ZoneId.of("UTC")),
+                format("Created by %s", event.getJDA().getSelfUser().getAsTag())
+        );
+        messageUtilService.getEmbedBuilder()
+                .addField("Queue depth", String.valueOf(metrics.queueDepth()), true)
+                .addField("Submitted", String.valueOf(metrics.submitted()), true)
+                .addField("Game checks skipped", String.valueOf(metrics.shed()), true)
+                .addField("Dropped", String.valueOf(metrics.dropped()), true)
+                .addField("Average scan", format("%dµs", metrics.averageScanMicros()), true)
+                .addField("Slowest scan", format("%dµs", metrics.maxScanMicros()), true);
+        addStages(slashCommandChain.stages(), chatCommandChain.stages());
+        event.getChannel()
+                .sendMessageEmbeds(messageUtilService.getEmbedBuilder().build())
+                .queue();
+    }
+
+    /**
+     * Adds a field per stage of the interceptor chains, as many as fit in an embed.
+     */
+    private void addStages(List<InterceptorChain.Stage> slashStages, List<InterceptorChain.Stage> chatStages) {
+        final var embed = messageUtilService.getEmbedBuilder();
+        final var fields = new ArrayList<MessageEmbed.Field>();
+        slashStages.forEach(stage -> fields.add(stageField("Slash", stage)));
+        chatStages.forEach(stage -> fields.add(stageField("Chat", stage)));
+        final var room = MAX_FIELDS - embed.getFields().size();
+        final var shown = fields.size() <= room ? fields.size() : room - 1;
+        for (var field : fields.subList(0, shown)) embed.addField(field.getName(), field.getValue(), true);
+        if (shown < fields.size()) embed.addField("More stages", format("%d stages not shown", fields.size() - shown), true);
+    }
+
+    private static MessageEmbed.Field stageField(String kind, InterceptorChain.Stage stage) {
+        final var latency = stage.latency();
+        return new MessageEmbed.Field(
+                format("%s: %s", kind, stage.name()),
+                format("%dµs average, %dµs max", latency.averageMicros(), latency.maxMicros()),
+                true
+        );
+    }
+
+    /**
+     * Handles the chat_command.
+     * Accepts a {@code CommandContext}.
+     *
+     * @see CommandContext
+     */
+    @Override
+    public Consumer<CommandContext> handle() {
+        return this::process;
+    }
+
+    @Override
+    public Supplier<String> name() {
+        return () -> "stats";
+    }
+
+    /**
+     * The description of the chat_command.
+     *
+     * @return the description of the chat_command.
+     */
+    @Override
+    public Supplier<String> description() {
+        return () -> "Shows the queue depth and scan latency of the moderation pipeline and the command dispatch timings, admins only.";
+    }
+}
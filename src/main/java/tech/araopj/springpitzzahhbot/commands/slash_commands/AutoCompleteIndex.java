@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.slash_commands;
+
+import net.dv8tion.jda.api.interactions.commands.Command;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.List;
+
+/**
+ * Immutable index of the suggestions of an autocomplete option.
+ * <p>
+ * Choices are sorted by their lower case name, so the choices that start with what the user typed are a
+ * contiguous range found by binary search. Choices that only contain it follow, until the limit is reached.
+ */
+public final class AutoCompleteIndex {
+
+    /**
+     * The most choices Discord accepts in an autocomplete reply.
+     */
+    public static final int MAX_CHOICES = 25;
+
+    private static final AutoCompleteIndex EMPTY = new AutoCompleteIndex(new String[0], new Command.Choice[0]);
+
+    private final String[] keys;
+    private final Command.Choice[] choices;
+
+    private AutoCompleteIndex(String[] keys, Command.Choice[] choices) {
+        this.keys = keys;
+        this.choices = choices;
+    }
+
+    /**
+     * Gets an index that suggests nothing.
+     * @return the shared empty index.
+     */
+    public static AutoCompleteIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index of the given choices, duplicates (ignoring case) are only suggested once.
+     * @param choices the choices to suggest.
+     * @return a new {@code AutoCompleteIndex}.
+     */
+    public static AutoCompleteIndex of(Collection<? extends Command.Choice> choices) {
+        final var sorted = choices.stream()
+                .sorted((a, b) -> a.getName().compareToIgnoreCase(b.getName()))
+                .toArray(Command.Choice[]::new);
+        final var keys = new ArrayList<String>(sorted.length);
+        final var unique = new ArrayList<Command.Choice>(sorted.length);
+        for (var choice : sorted) {
+            final var key = choice.getName().toLowerCase(Locale.ROOT);
+            if (!keys.isEmpty() && keys.get(keys.size() - 1).equals(key)) continue;
+            keys.add(key);
+            unique.add(new Command.Choice(choice.getName(), choice.getAsString()));
+        }
+        return new AutoCompleteIndex(keys.toArray(String[]::new), unique.toArray(Command.Choice[]::new));
+    }
+
+    /**
+     * Suggests the choices that match what the user typed so far.
+     * @param typed the current value of the option.
+     * @param limit the most choices to return.
+     * @return the choices that start with {@code typed}, then the ones that contain it.
+     */
+    public List<Command.Choice> complete(String typed, int limit) {
+        final var query = typed.trim().toLowerCase(Locale.ROOT);
+        final var found = new ArrayList<Command.Choice>(Math.min(limit, choices.length));
+        var from = Arrays.binarySearch(keys, query);
+        if (from < 0) from = -from - 1;
+        var to = from;
+        while (to < keys.length && found.size() < limit && keys[to].startsWith(query)) found.add(choices[to++]);
+        for (int i = 0; i < keys.length && found.size() < limit; i++) {
+            if ((i < from || i >= to) && keys[i].contains(query)) found.add(choices[i]);
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether a value is one of the choices, used to validate what was submitted.
+     * @param value the value of an option.
+     * @return {@code true} if a choice has that value.
+     */
+    public boolean containsValue(String value) {
+        for (var choice : choices) if (choice.getAsString().equals(value)) return true;
+        return false;
+    }
+
+    public int size() {
+        return choices.length;
+    }
+
+    public boolean isEmpty() {
+        return choices.length == 0;
+    }
+}
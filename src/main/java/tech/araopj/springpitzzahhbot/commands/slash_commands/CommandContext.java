@@ -28,8 +28,22 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import org.jetbrains.annotations.Contract;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.MessageBuilder;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
 
-public record CommandContext(SlashCommandInteractionEvent event) implements SlashCommandContext {
+/**
+ * The context of a slash command.
+ * <p>
+ * Commands answer through {@link #reply(Message, boolean, Consumer)} and {@link #deferReply(boolean)} instead of the
+ * event, the reply may have been deferred by the {@link DeferWatchdog} already.
+ */
+@Slf4j
+public record CommandContext(SlashCommandInteractionEvent event, DeferringInteraction interaction) implements SlashCommandContext {
 
     @Override
     @Contract(pure = true)
@@ -48,4 +62,70 @@ public record CommandContext(SlashCommandInteractionEvent event) implements Slas
     public SlashCommandInteractionEvent getEvent() {
         return this.event();
     }
+
+    @Contract(pure = true)
+    public InteractionHook getHook() {
+        return this.event().getHook();
+    }
+
+    /**
+     * Answers the interaction. Once the reply was deferred the message replaces the deferred reply, and once the
+     * interaction was answered the message is sent as a follow-up.
+     * @param message the message to send.
+     * @param ephemeral whether the message is shown to the user only. A public deferred reply is replaced by a
+     *                  hidden follow-up then, a hidden deferred reply stays hidden.
+     * @param success called with the hook of the interaction once the message was sent, may be {@code null}.
+     */
+    public void reply(Message message, boolean ephemeral, Consumer<InteractionHook> success) {
+        final var hook = getHook();
+        final Consumer<Object> sent = success == null ? null : ignored -> success.accept(hook);
+        switch (interaction.respond()) {
+            case REPLY -> event.reply(message).setEphemeral(ephemeral).queue(sent);
+            case EDIT_DEFERRED -> {
+                if (!ephemeral || interaction.isDeferredEphemeral()) hook.editOriginal(message).queue(sent);
+                else {
+                    // the deferred reply is public, replacing it would show a hidden message to everyone
+                    hook.deleteOriginal().queue();
+                    hook.sendMessage(message).setEphemeral(true).queue(sent);
+                }
+            }
+            case FOLLOW_UP -> hook.sendMessage(message).setEphemeral(ephemeral).queue(sent);
+        }
+    }
+
+    /**
+     * Answers the interaction with an embed.
+     * @see #reply(Message, boolean, Consumer)
+     */
+    public void replyEmbeds(MessageEmbed embed, boolean ephemeral, Consumer<InteractionHook> success) {
+        reply(new MessageBuilder().setEmbeds(embed).build(), ephemeral, success);
+    }
+
+    /**
+     * Answers the interaction with a text.
+     * @see #reply(Message, boolean, Consumer)
+     */
+    public void reply(String content, boolean ephemeral) {
+        reply(new MessageBuilder(content).build(), ephemeral, null);
+    }
+
+    /**
+     * Defers the reply, unless the watchdog deferred it already. Answer it later through {@link #getHook()} or
+     * {@link #reply(Message, boolean, Consumer)}.
+     * @param ephemeral whether the reply is shown to the user only.
+     */
+    public void deferReply(boolean ephemeral) {
+        if (interaction.defer(ephemeral)) event.deferReply(ephemeral).queue();
+    }
+
+    /**
+     * Replaces the deferred reply with an error, for work that failed after the command returned.
+     * @param e what went wrong.
+     * @return {@code null}, so it can be passed to {@link CompletableFuture#exceptionally}.
+     */
+    public Void replyFailure(Throwable e) {
+        log.error("Cannot answer /{}", event.getName(), e);
+        getHook().editOriginal("Something went wrong, please try again later 😢").queue();
+        return null;
+    }
 }
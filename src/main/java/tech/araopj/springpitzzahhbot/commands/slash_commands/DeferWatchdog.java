@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.slash_commands;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import tech.araopj.springpitzzahhbot.configs.CommandExecutorConfig;
+import java.util.concurrent.ScheduledExecutorService;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Defers the reply of slash commands that take too long to answer.
+ * <p>
+ * The budget starts when the interaction is received, so time spent waiting for a command thread counts too.
+ * It should stay well below the 3 seconds Discord waits for an acknowledgement.
+ */
+@Slf4j
+@Component
+public class DeferWatchdog {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "defer-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long budgetInMillis;
+
+    public DeferWatchdog(CommandExecutorConfig commandExecutorConfig) {
+        this.budgetInMillis = commandExecutorConfig.getDeferAfterInMillis();
+    }
+
+    /**
+     * Starts watching a slash command.
+     * @param event the event of the slash command.
+     * @param ephemeral whether a deferred reply is shown to the user only.
+     * @return the interaction to hand to the {@link CommandContext} of the command, which replies through it.
+     */
+    public DeferringInteraction watch(SlashCommandInteractionEvent event, boolean ephemeral) {
+        final var interaction = new DeferringInteraction(event, ephemeral);
+        interaction.watchdog(scheduler.schedule(() -> {
+            if (interaction.deferIfUnanswered()) log.info("Deferred the reply of /{} after {}ms", event.getName(), budgetInMillis);
+        }, budgetInMillis, TimeUnit.MILLISECONDS));
+        return interaction;
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+}
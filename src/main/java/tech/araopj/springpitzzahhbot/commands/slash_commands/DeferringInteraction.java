@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.slash_commands;
+
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides how a slash command interaction is answered when a {@link DeferWatchdog} may acknowledge it behind the
+ * back of the command.
+ * <p>
+ * Discord fails an interaction that is not acknowledged within 3 seconds, so the watchdog defers the reply once the
+ * command used up its budget. The replies of {@link CommandContext} ask {@link #respond()} whether to answer the
+ * interaction, edit the deferred reply or send a follow-up, so a command does not need to know whether it was
+ * deferred. A command that answers in time is not touched.
+ */
+@Slf4j
+public final class DeferringInteraction {
+
+    private static final int PENDING = 0;
+    private static final int DEFERRED = 1;
+    private static final int ANSWERED = 2;
+
+    private final SlashCommandInteractionEvent event;
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    private final boolean ephemeral;
+    private volatile ScheduledFuture<?> watchdog;
+    private volatile boolean deferredEphemeral;
+
+    DeferringInteraction(SlashCommandInteractionEvent event, boolean ephemeral) {
+        this.event = event;
+        this.ephemeral = ephemeral;
+    }
+
+    void watchdog(ScheduledFuture<?> watchdog) {
+        this.watchdog = watchdog;
+        if (state.get() != PENDING) watchdog.cancel(false);
+    }
+
+    /**
+     * Defers the reply if the command did not start answering yet, called by the watchdog.
+     * @return {@code true} if the reply was deferred.
+     */
+    boolean deferIfUnanswered() {
+        if (!state.compareAndSet(PENDING, DEFERRED)) return false;
+        deferredEphemeral = ephemeral;
+        event.deferReply(ephemeral).queue(
+                null,
+                e -> log.warn("Cannot defer the reply of /{}", event.getName(), e)
+        );
+        return true;
+    }
+
+    /**
+     * Claims the deferral for the command, which then acknowledges the interaction itself.
+     * @param ephemeral whether the command defers the reply as shown to the user only.
+     * @return {@code true} if the command has to defer the reply, {@code false} if it was already deferred or answered.
+     */
+    boolean defer(boolean ephemeral) {
+        if (!state.compareAndSet(PENDING, DEFERRED)) return false;
+        deferredEphemeral = ephemeral;
+        cancelWatchdog();
+        return true;
+    }
+
+    /**
+     * Whether the reply was deferred as shown to the user only, meaningful once it was deferred.
+     * @return {@code true} if the deferred reply is hidden from everyone else.
+     */
+    boolean isDeferredEphemeral() {
+        return deferredEphemeral;
+    }
+
+    /**
+     * Claims the next response of the interaction.
+     * @return how the response has to be sent.
+     */
+    Response respond() {
+        if (state.compareAndSet(PENDING, ANSWERED)) {
+            cancelWatchdog();
+            return Response.REPLY;
+        }
+        return state.compareAndSet(DEFERRED, ANSWERED) ? Response.EDIT_DEFERRED : Response.FOLLOW_UP;
+    }
+
+    private void cancelWatchdog() {
+        final var watchdog = this.watchdog;
+        if (watchdog != null) watchdog.cancel(false);
+    }
+
+    /**
+     * How a response of the interaction is sent.
+     */
+    enum Response {
+        /**
+         * The interaction was not acknowledged yet, the response is the reply.
+         */
+        REPLY,
+        /**
+         * The reply was deferred, the response replaces the deferred reply.
+         */
+        EDIT_DEFERRED,
+        /**
+         * The interaction was answered already, the response is a follow-up message.
+         */
+        FOLLOW_UP
+    }
+}
@@ -24,10 +24,14 @@
 
 package tech.araopj.springpitzzahhbot.commands.slash_commands;
 
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
+import tech.araopj.springpitzzahhbot.commands.RateLimit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.time.Duration;
+import java.util.List;
 
 public interface SlashCommand {
 
@@ -55,10 +59,57 @@ public interface SlashCommand {
         return () -> new CommandDataImpl(name().get(), description().get());
     }
 
+    /**
+     * Suggests values for the autocomplete options of a slash command while the user types them.
+     * Runs on the event thread for every keystroke, so it must answer from memory.
+     * @return a {@code Consumer<CommandAutoCompleteInteractionEvent>}, suggests nothing by default.
+     * @see Consumer
+     */
+    default Consumer<CommandAutoCompleteInteractionEvent> autoComplete() {
+        return event -> event.replyChoices(List.of()).queue();
+    }
+
     /**
      * Supplies the description of a slash command.
      * @return a {code Supplier<String>} containing the description of the command.
      * @see Supplier
      */
     Supplier<String> description();
-}
\ No newline at end of file
+
+    /**
+     * Supplies whether the reply of the slash command is only shown to the user who used it.
+     * Used when a slow command is deferred automatically, because a deferred reply cannot change that later.
+     * @return a {@code Supplier<Boolean>}, {@code false} unless the command replies ephemerally.
+     * @see DeferWatchdog
+     */
+    default Supplier<Boolean> ephemeral() {
+        return () -> false;
+    }
+
+    /**
+     * Supplies how many invocations of the slash command may run at the same time.
+     * @return a {@code Supplier<Integer>}, 4 unless the command needs a tighter limit.
+     * @see tech.araopj.springpitzzahhbot.commands.CommandExecutor
+     */
+    default Supplier<Integer> maxConcurrency() {
+        return () -> 4;
+    }
+
+    /**
+     * Supplies how often a single user may use the slash command.
+     * @return a {@code Supplier<RateLimit>}, 5 uses every 10 seconds unless the slash command needs a tighter limit.
+     * @see tech.araopj.springpitzzahhbot.commands.CommandRateLimiter
+     */
+    default Supplier<RateLimit> userRateLimit() {
+        return () -> RateLimit.of(5, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Supplies how often the slash command may be used in a guild, by all of its members together.
+     * @return a {@code Supplier<RateLimit>}, unlimited unless the slash command needs a limit.
+     * @see tech.araopj.springpitzzahhbot.commands.CommandRateLimiter
+     */
+    default Supplier<RateLimit> guildRateLimit() {
+        return () -> RateLimit.NONE;
+    }
+}
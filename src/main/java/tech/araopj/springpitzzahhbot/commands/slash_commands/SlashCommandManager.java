@@ -24,18 +24,26 @@
 
 package tech.araopj.springpitzzahhbot.commands.slash_commands;
 
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import tech.araopj.springpitzzahhbot.exceptions.CommandAlreadyExistException;
 import tech.araopj.springpitzzahhbot.services.CommandsService;
+import tech.araopj.springpitzzahhbot.commands.CommandRateLimiter;
+import tech.araopj.springpitzzahhbot.commands.InterceptorChain;
+import tech.araopj.springpitzzahhbot.commands.CommandExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.lang.NonNull;
-import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
-import java.util.Objects;
 
 @Slf4j
 @Component
-public record SlashCommandManager(CommandsService commandsService) {
+public record SlashCommandManager(
+        CommandsService commandsService,
+        CommandExecutor commandExecutor,
+        CommandRateLimiter commandRateLimiter,
+        DeferWatchdog deferWatchdog,
+        InterceptorChain<CommandContext> slashCommandChain
+) {
 
     public void addCommand(@NonNull SlashCommand slashCommand) {
         var found = commandsService
@@ -50,28 +58,37 @@ public record SlashCommandManager(CommandsService commandsService) {
 
     public void handle(@NonNull SlashCommandInteractionEvent event) {
         var commandName = event.getName();
-        var COMMAND_CONTEXT = new CommandContext(event);
-        if (commandsService.slashCommands().containsKey(commandName)) {
-            commandsService
-                    .slashCommands()
-                    .get(commandName)
-                    .execute()
-                    .accept(COMMAND_CONTEXT);
-        }
-        var commandData = commandsService
-                .slashCommands()
-                .values()
-                .stream()
-                .map(SlashCommand::getCommandData)
-                .map(Supplier::get)
-                .toList();
-        if (!commandData.isEmpty()) {
-            Objects.requireNonNull(
-                    event.getGuild()
-            ).updateCommands()
-                    .addCommands(commandData)
-                    .queue();
+        final var COMMAND = commandsService.slashCommands().get(commandName);
+        if (COMMAND != null) {
+            final var KEY = "slash:" + commandName;
+            final var wait = commandRateLimiter.tryAcquire(
+                    KEY,
+                    COMMAND.userRateLimit().get(),
+                    COMMAND.guildRateLimit().get(),
+                    event.getGuild() == null ? 0 : event.getGuild().getIdLong(),
+                    event.getUser().getIdLong()
+            );
+            if (wait > 0) {
+                event.reply(CommandRateLimiter.describe("/" + commandName, wait)).setEphemeral(true).queue();
+                return;
+            }
+            final var CONTEXT = new CommandContext(event, deferWatchdog.watch(event, COMMAND.ephemeral().get()));
+            commandExecutor.execute(
+                    KEY,
+                    COMMAND.maxConcurrency().get(),
+                    () -> slashCommandChain.dispatch(CONTEXT, COMMAND.execute()),
+                    rejection -> CONTEXT.reply(rejection.describe("/" + commandName), true)
+            );
         }
     }
 
+    /**
+     * Answers an autocomplete interaction on the event thread, commands answer it from memory.
+     * @param event the autocomplete interaction.
+     */
+    public void handleAutoComplete(@NonNull CommandAutoCompleteInteractionEvent event) {
+        final var COMMAND = commandsService.slashCommands().get(event.getName());
+        if (COMMAND != null) COMMAND.autoComplete().accept(event);
+    }
+
 }
@@ -29,7 +29,7 @@ import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
-import org.springframework.stereotype.Component;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.BotSlashCommand;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.CommandContext;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
 import tech.araopj.springpitzzahhbot.services.slash_commands.ConfessionService;
@@ -49,7 +49,7 @@ import static java.util.concurrent.TimeUnit.MINUTES;
  * Class used to manage confessions slash command.
  */
 @Slf4j
-@Component
+@BotSlashCommand
 public record Confession(
         MessageUtilService messageUtilService,
         ConfessionService confessionService,
@@ -99,11 +99,11 @@ public record Confession(
                                     .orElse("general")
                     )
             );
-            context.getEvent()
-                    .getInteraction()
-                    .reply(messageUtilService.getMessageBuilder().build())
-                    .setEphemeral(true)
-                    .queue(m -> m.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES));
+            context.reply(
+                    messageUtilService.getMessageBuilder().build(),
+                    true,
+                    hook -> hook.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES)
+            );
             log.info("Sent ephemeral message to user {}", context.getEvent().getUser().getAsTag());
         }
     }
@@ -145,11 +145,11 @@ public record Confession(
                                 .orElse("general")
                 )
         );
-        context.getEvent()
-                .getInteraction()
-                .reply(messageUtilService.getMessageBuilder().build())
-                .setEphemeral(true)
-                .queue(m -> m.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES));
+        context.reply(
+                messageUtilService.getMessageBuilder().build(),
+                true,
+                hook -> hook.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES)
+        );
     }
 
     /**
@@ -193,4 +193,16 @@ public record Confession(
     public Supplier<String> description() {
         return () -> "Tell a confession message";
     }
+
+    /**
+     * Supplies whether the reply is only shown to the user.
+     * The confession must not show who sent it, so the reply stays hidden even when it is deferred.
+     *
+     * @return a {@code Supplier<Boolean>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<Boolean> ephemeral() {
+        return () -> true;
+    }
 }
@@ -35,7 +35,7 @@ import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
-import org.springframework.stereotype.Service;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.BotSlashCommand;
 import static java.util.Objects.requireNonNull;
 import static java.lang.String.format;
 import java.util.function.Consumer;
@@ -44,7 +44,7 @@ import lombok.extern.slf4j.Slf4j;
 import static java.awt.Color.*;
 
 @Slf4j
-@Service
+@BotSlashCommand
 public record Play(
         MessageUtilService messageUtilService,
         GameService gameService
@@ -83,10 +83,7 @@ public record Play(
                 .setColor(COLOR)
                 .setTitle(format("Difficulty: %s", DIFFICULTY.name()))
                 .setDescription(RandomMathProblemGenerator.getQuestion());
-        context.getEvent()
-                .getInteraction()
-                .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                .queue();
+        context.replyEmbeds(messageUtilService.getEmbedBuilder().build(), false, null);
         gameService.addQuestion().accept(PLAYER, getAnswer());
     }
 
@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.slash_commands.commands;
+
+import tech.araopj.springpitzzahhbot.commands.slash_commands.CommandContext;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import tech.araopj.springpitzzahhbot.services.MessageUtilService;
+import net.dv8tion.jda.internal.interactions.CommandDataImpl;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import tech.araopj.springpitzzahhbot.services.PrefixService;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.BotSlashCommand;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import net.dv8tion.jda.api.Permission;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.io.UncheckedIOException;
+import static java.lang.String.format;
+import lombok.extern.slf4j.Slf4j;
+import static java.awt.Color.*;
+import java.util.Objects;
+import java.util.List;
+
+/**
+ * Class used to change the chat_command prefixes of a guild.
+ */
+@Slf4j
+@BotSlashCommand
+public record Prefix(
+        MessageUtilService messageUtilService,
+        PrefixService prefixService
+) implements SlashCommand {
+
+    @Override
+    public Consumer<CommandContext> execute() {
+        return this::process;
+    }
+
+    /**
+     * Contains the process to be executed.
+     *
+     * @param context the command context containing the information about the command.
+     */
+    private void process(CommandContext context) {
+        final var guildId = context.getGuild().getIdLong();
+        final var subcommand = Objects.requireNonNull(context.getEvent().getSubcommandName(), "Null subcommand");
+        if ("show".equals(subcommand)) {
+            messageUtilService.generateAutoDeleteMessage(context.event(), CYAN, "Prefixes", describe(prefixService.getPrefixes(guildId)));
+            reply(context);
+            return;
+        }
+        final var member = Objects.requireNonNull(context.getMember(), "Null member");
+        if (!member.isOwner() && !member.hasPermission(Permission.MANAGE_SERVER)) {
+            log.info("User {} is not allowed to change the prefixes", member.getUser().getAsTag());
+            messageUtilService.generateAutoDeleteMessage(context.event(), RED, "Not allowed", "You are not allowed to use this command");
+            reply(context);
+            return;
+        }
+        try {
+            if ("reset".equals(subcommand)) {
+                prefixService.resetPrefixes(guildId);
+            } else {
+                final var prefixes = Objects.requireNonNull(context.getEvent().getOption("prefixes"), "Null prefixes")
+                        .getAsString()
+                        .strip()
+                        .split("\\s+");
+                prefixService.setPrefixes(guildId, List.of(prefixes));
+            }
+        } catch (IllegalArgumentException e) {
+            messageUtilService.generateAutoDeleteMessage(context.event(), YELLOW, "Invalid prefixes", e.getMessage());
+            reply(context);
+            return;
+        } catch (UncheckedIOException e) {
+            log.error("Cannot change the prefixes of guild {}", guildId, e);
+            messageUtilService.generateAutoDeleteMessage(context.event(), RED, "Prefixes not changed", "The prefixes could not be saved, try again later");
+            reply(context);
+            return;
+        }
+        log.info("Prefixes of guild {} changed by {}: {}", guildId, member.getUser().getAsTag(), prefixService.getPrefixes(guildId));
+        messageUtilService.generateAutoDeleteMessage(context.event(), GREEN, "Prefixes updated", describe(prefixService.getPrefixes(guildId)));
+        reply(context);
+    }
+
+    private String describe(List<String> prefixes) {
+        return format("Chat commands in this server start with %s", String.join(" or ", prefixes.stream()
+                .map(prefix -> "`" + prefix + "`")
+                .toList()));
+    }
+
+    private void reply(CommandContext context) {
+        context.replyEmbeds(
+                messageUtilService.getEmbedBuilder().build(),
+                true,
+                hook -> hook.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES)
+        );
+    }
+
+    /**
+     * Supplies the name of the slash command.
+     *
+     * @return a {@code Supplier<String>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<String> name() {
+        return () -> "prefix";
+    }
+
+    /**
+     * Supplies the command data of a slash command.
+     *
+     * @return a {@code Supplier<CommandData>}.
+     * @see Supplier
+     * @see CommandData
+     */
+    @Override
+    public Supplier<CommandData> getCommandData() {
+        return () -> new CommandDataImpl(
+                name().get(),
+                description().get())
+                .addSubcommands(
+                        new SubcommandData("set", "Set the prefixes of the chat commands in this server")
+                                .addOption(OptionType.STRING, "prefixes", format("Up to %d prefixes separated by spaces", PrefixService.MAX_PREFIXES), true),
+                        new SubcommandData("reset", "Use the default prefix again"),
+                        new SubcommandData("show", "Show the prefixes of the chat commands in this server")
+                )
+                .setGuildOnly(true);
+    }
+
+    /**
+     * Supplies the description of a slash command.
+     *
+     * @return a {code Supplier<String>} containing the description of the command.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<String> description() {
+        return () -> "Change the prefix of the chat commands in this server";
+    }
+
+    /**
+     * Supplies whether the reply is only shown to the user.
+     * The reply is only meant for the member who changed the prefixes, so it stays hidden even when it is deferred.
+     *
+     * @return a {@code Supplier<Boolean>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<Boolean> ephemeral() {
+        return () -> true;
+    }
+}
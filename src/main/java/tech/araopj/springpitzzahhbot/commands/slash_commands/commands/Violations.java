@@ -0,0 +1,254 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.slash_commands.commands;
+
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.CommandContext;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
+import tech.araopj.springpitzzahhbot.services.configs.ViolationService;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import tech.araopj.springpitzzahhbot.services.MessageUtilService;
+import net.dv8tion.jda.internal.interactions.CommandDataImpl;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import tech.araopj.springpitzzahhbot.moderation.AuditLog;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.BotSlashCommand;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.MessageBuilder;
+import net.dv8tion.jda.api.Permission;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import static java.lang.String.format;
+import lombok.extern.slf4j.Slf4j;
+import static java.awt.Color.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.List;
+
+/**
+ * Class used to let admins look up the recent violations of a member, a channel or the whole server.
+ * <p>
+ * Everything needed to load the next page is encoded in the ids of the page buttons, so paging does
+ * not keep any state between clicks.
+ */
+@Slf4j
+@BotSlashCommand
+public record Violations(
+        MessageUtilService messageUtilService,
+        ViolationService violationService
+) implements SlashCommand {
+
+    public static final String BUTTON_PREFIX = "violations:";
+    private static final int DEFAULT_COUNT = 10;
+    // a line takes up to 90 characters, 40 of them stay below the 4096 characters of an embed description
+    private static final int MAX_COUNT = 40;
+
+    @Override
+    public Consumer<CommandContext> execute() {
+        return this::process;
+    }
+
+    /**
+     * Contains the process to be executed.
+     *
+     * @param context the command context containing the information about the command.
+     */
+    private void process(CommandContext context) {
+        final var event = context.getEvent();
+        if (!isAllowed(context.getMember())) {
+            messageUtilService.generateAutoDeleteMessage(event, RED, "Not allowed", "You are not allowed to use this command");
+            context.replyEmbeds(messageUtilService.getEmbedBuilder().build(), true, null);
+            return;
+        }
+        final var user = event.getOption("user");
+        final var channel = event.getOption("channel");
+        final var hours = event.getOption("hours");
+        final var count = event.getOption("count");
+        final var query = new Query(
+                user != null ? AuditLog.Scope.USER : channel != null ? AuditLog.Scope.CHANNEL : AuditLog.Scope.GUILD,
+                user != null ? user.getAsLong() : channel != null ? channel.getAsLong() : 0,
+                hours != null ? System.currentTimeMillis() - Math.max(hours.getAsLong(), 1) * 3_600_000 : 0,
+                count != null ? (int) Math.min(Math.max(count.getAsLong(), 1), MAX_COUNT) : DEFAULT_COUNT
+        );
+        final var page = query(Objects.requireNonNull(context.getGuild(), "Null guild").getIdLong(), query, null);
+        final var reply = new MessageBuilder().setEmbeds(render(query, page));
+        final var buttons = buttons(query, page);
+        if (!buttons.isEmpty()) reply.setActionRows(ActionRow.of(buttons));
+        context.reply(reply.build(), true, null);
+    }
+
+    /**
+     * Shows the next or previous page when one of the page buttons is clicked.
+     * @param event the event of the clicked button.
+     */
+    public void onButton(ButtonInteractionEvent event) {
+        if (!isAllowed(event.getMember())) {
+            event.deferEdit().queue();
+            return;
+        }
+        final var parts = Objects.requireNonNull(event.getButton().getId(), "Null button id")
+                .substring(BUTTON_PREFIX.length())
+                .split(":");
+        final var query = new Query(
+                AuditLog.Scope.values()[Integer.parseInt(parts[0])],
+                Long.parseLong(parts[1], Character.MAX_RADIX),
+                Long.parseLong(parts[2], Character.MAX_RADIX),
+                Math.min(Integer.parseInt(parts[3]), MAX_COUNT)
+        );
+        final var cursor = new AuditLog.Cursor(
+                Long.parseLong(parts[5], Character.MAX_RADIX),
+                Long.parseLong(parts[6], Character.MAX_RADIX),
+                "o".equals(parts[4])
+        );
+        final var page = query(Objects.requireNonNull(event.getGuild(), "Null guild").getIdLong(), query, cursor);
+        final var edit = event.editMessageEmbeds(render(query, page));
+        final var buttons = buttons(query, page);
+        if (buttons.isEmpty()) edit.setActionRows();
+        else edit.setActionRows(ActionRow.of(buttons));
+        edit.queue();
+    }
+
+    private AuditLog.Page query(long guildId, Query query, AuditLog.Cursor cursor) {
+        return violationService.getViolations(query.scope(), guildId, query.subject(), query.sinceInMillis(), cursor, query.count());
+    }
+
+    private boolean isAllowed(Member member) {
+        return member != null && (member.isOwner() || member.hasPermission(Permission.MANAGE_SERVER));
+    }
+
+    private MessageEmbed render(Query query, AuditLog.Page page) {
+        final var description = new StringBuilder();
+        for (var entry : page.entries()) {
+            final var record = entry.record();
+            description.append(format("<t:%d:f> <@%d> in <#%d> · %s\n",
+                    record.timeInMillis() / 1000,
+                    record.userId(),
+                    record.channelId(),
+                    record.reason().getTitle()));
+        }
+        return messageUtilService.getEmbedBuilder()
+                .clear()
+                .clearFields()
+                .setColor(CYAN)
+                .setTitle(switch (query.scope()) {
+                    case USER -> "Violations of a member";
+                    case CHANNEL -> "Violations in a channel";
+                    case GUILD -> "Violations in this server";
+                })
+                .setDescription(switch (query.scope()) {
+                    case USER -> format("Member: <@%d>\n\n", query.subject());
+                    case CHANNEL -> format("Channel: <#%d>\n\n", query.subject());
+                    case GUILD -> "";
+                } + (page.entries().isEmpty() ? "No violations found" : description))
+                .setTimestamp(Instant.now())
+                .build();
+    }
+
+    private List<Button> buttons(Query query, AuditLog.Page page) {
+        if (page.entries().isEmpty()) return List.of();
+        final var newest = page.entries().get(0);
+        final var oldest = page.entries().get(page.entries().size() - 1);
+        final var buttons = new ArrayList<Button>(2);
+        if (page.hasNewer()) buttons.add(Button.secondary(buttonId(query, newest.cursor(false)), "Newer"));
+        if (page.hasOlder()) buttons.add(Button.secondary(buttonId(query, oldest.cursor(true)), "Older"));
+        return buttons;
+    }
+
+    private static String buttonId(Query query, AuditLog.Cursor cursor) {
+        // custom ids are limited to 100 characters, base 36 keeps every long under 14
+        return BUTTON_PREFIX + String.join(":",
+                String.valueOf(query.scope().ordinal()),
+                Long.toString(query.subject(), Character.MAX_RADIX),
+                Long.toString(query.sinceInMillis(), Character.MAX_RADIX),
+                String.valueOf(query.count()),
+                cursor.older() ? "o" : "n",
+                Long.toString(cursor.time(), Character.MAX_RADIX),
+                Long.toString(cursor.sequence(), Character.MAX_RADIX));
+    }
+
+    /**
+     * Supplies the name of the slash command.
+     *
+     * @return a {@code Supplier<String>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<String> name() {
+        return () -> "violations";
+    }
+
+    /**
+     * Supplies the command data of a slash command.
+     *
+     * @return a {@code Supplier<CommandData>}.
+     * @see Supplier
+     * @see CommandData
+     */
+    @Override
+    public Supplier<CommandData> getCommandData() {
+        return () -> new CommandDataImpl(
+                name().get(),
+                description().get())
+                .addOption(OptionType.USER, "user", "Only show the violations of this member", false)
+                .addOption(OptionType.CHANNEL, "channel", "Only show the violations in this channel", false)
+                .addOption(OptionType.INTEGER, "hours", "Only show the violations of the last hours", false)
+                .addOption(OptionType.INTEGER, "count", format("How many violations to show per page, up to %d", MAX_COUNT), false)
+                .setGuildOnly(true);
+    }
+
+    /**
+     * Supplies the description of a slash command.
+     *
+     * @return a {code Supplier<String>} containing the description of the command.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<String> description() {
+        return () -> "Show the recent violations in this server";
+    }
+
+    /**
+     * What to list, carried from page to page in the button ids.
+     * @param scope whether to list the violations of a member, of a channel or of the whole server.
+     * @param subject the id of the member or the channel.
+     * @param sinceInMillis the oldest time to include.
+     * @param count the number of violations per page.
+     */
+    private record Query(AuditLog.Scope scope, long subject, long sinceInMillis, int count) { }
+
+    /**
+     * Supplies whether the reply is only shown to the user.
+     * The reply lists moderation records, so it stays hidden even when it is deferred.
+     *
+     * @return a {@code Supplier<Boolean>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<Boolean> ephemeral() {
+        return () -> true;
+    }
+}
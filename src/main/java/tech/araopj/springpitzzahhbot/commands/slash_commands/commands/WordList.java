@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.slash_commands.commands;
+
+import tech.araopj.springpitzzahhbot.commands.slash_commands.CommandContext;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
+import tech.araopj.springpitzzahhbot.services.configs.WordListService;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import tech.araopj.springpitzzahhbot.services.MessageUtilService;
+import tech.araopj.springpitzzahhbot.moderation.WordOverlay;
+import net.dv8tion.jda.internal.interactions.CommandDataImpl;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.BotSlashCommand;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import net.dv8tion.jda.api.Permission;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.io.UncheckedIOException;
+import static java.lang.String.format;
+import lombok.extern.slf4j.Slf4j;
+import static java.awt.Color.*;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Class used to manage the guild's own swear word list.
+ */
+@Slf4j
+@BotSlashCommand
+public record WordList(
+        MessageUtilService messageUtilService,
+        WordListService wordListService
+) implements SlashCommand {
+
+    @Override
+    public Consumer<CommandContext> execute() {
+        return this::process;
+    }
+
+    /**
+     * Contains the process to be executed.
+     *
+     * @param context the command context containing the information about the command.
+     */
+    private void process(CommandContext context) {
+        final var member = Objects.requireNonNull(context.getMember(), "Null member");
+        if (!member.isOwner() && !member.hasPermission(Permission.MANAGE_SERVER)) {
+            log.info("User {} is not allowed to change the word list", member.getUser().getAsTag());
+            messageUtilService.generateAutoDeleteMessage(context.event(), RED, "Not allowed", "You are not allowed to use this command");
+            reply(context);
+            return;
+        }
+        final var guildId = context.getGuild().getIdLong();
+        final var subcommand = Objects.requireNonNull(context.getEvent().getSubcommandName(), "Null subcommand");
+        if ("list".equals(subcommand)) {
+            final var overlay = wordListService.getOverlay(guildId);
+            messageUtilService.generateAutoDeleteMessage(context.event(), CYAN, "Word list", "Changes this server made to the shared word list");
+            messageUtilService.getEmbedBuilder()
+                    .addField("Blocked", join(overlay.denied()), false)
+                    .addField("Allowed", join(overlay.allowed()), false);
+            reply(context);
+            return;
+        }
+        final var word = Objects.requireNonNull(context.getEvent().getOption("word"), "Null word").getAsString();
+        if (word.isBlank()) {
+            messageUtilService.generateAutoDeleteMessage(context.event(), YELLOW, "Invalid word", "The word cannot be empty");
+            reply(context);
+            return;
+        }
+        final WordOverlay overlay;
+        try {
+            overlay = switch (subcommand) {
+                case "block" -> wordListService.deny(guildId, word);
+                case "allow" -> wordListService.allow(guildId, word);
+                case "remove" -> wordListService.remove(guildId, word);
+                default -> throw new IllegalStateException("Unknown subcommand: " + subcommand);
+            };
+        } catch (IllegalArgumentException e) {
+            messageUtilService.generateAutoDeleteMessage(context.event(), YELLOW, "Invalid word", e.getMessage());
+            reply(context);
+            return;
+        } catch (UncheckedIOException e) {
+            log.error("Cannot change the word list of guild {}", guildId, e);
+            messageUtilService.generateAutoDeleteMessage(context.event(), RED, "Word list not changed", "The word list could not be saved, try again later");
+            reply(context);
+            return;
+        }
+        log.info("Word list of guild {} changed by {}: {} {}", guildId, member.getUser().getAsTag(), subcommand, word);
+        messageUtilService.generateAutoDeleteMessage(
+                context.event(),
+                GREEN,
+                "Word list updated",
+                format("`%s` %s. This server blocks %d and allows %d words of its own.",
+                        word,
+                        switch (subcommand) {
+                            case "block" -> "is now blocked";
+                            case "allow" -> "is now allowed";
+                            default -> "was removed";
+                        },
+                        overlay.denied().size(),
+                        overlay.allowed().size())
+        );
+        reply(context);
+    }
+
+    private String join(Set<String> words) {
+        if (words.isEmpty()) return "None";
+        final var joined = String.join(", ", words);
+        return joined.length() > 1024 ? joined.substring(0, 1020).concat("...") : joined;
+    }
+
+    private void reply(CommandContext context) {
+        context.replyEmbeds(
+                messageUtilService.getEmbedBuilder().build(),
+                true,
+                hook -> hook.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES)
+        );
+    }
+
+    /**
+     * Supplies the name of the slash command.
+     *
+     * @return a {@code Supplier<String>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<String> name() {
+        return () -> "words";
+    }
+
+    /**
+     * Supplies the command data of a slash command.
+     *
+     * @return a {@code Supplier<CommandData>}.
+     * @see Supplier
+     * @see CommandData
+     */
+    @Override
+    public Supplier<CommandData> getCommandData() {
+        return () -> new CommandDataImpl(
+                name().get(),
+                description().get())
+                .addSubcommands(
+                        new SubcommandData("block", "Block a word in this server")
+                                .addOption(OptionType.STRING, "word", "The word to block", true),
+                        new SubcommandData("allow", "Allow a word of the shared list in this server")
+                                .addOption(OptionType.STRING, "word", "The word to allow", true),
+                        new SubcommandData("remove", "Remove a word from this server's list")
+                                .addOption(OptionType.STRING, "word", "The word to remove", true),
+                        new SubcommandData("list", "Show the words blocked and allowed in this server")
+                )
+                .setGuildOnly(true);
+    }
+
+    /**
+     * Supplies the description of a slash command.
+     *
+     * @return a {code Supplier<String>} containing the description of the command.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<String> description() {
+        return () -> "Manage the words checked in this server";
+    }
+
+    /**
+     * Supplies whether the reply is only shown to the user.
+     * The reply may repeat blocked words, so it stays hidden even when it is deferred.
+     *
+     * @return a {@code Supplier<Boolean>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<Boolean> ephemeral() {
+        return () -> true;
+    }
+}
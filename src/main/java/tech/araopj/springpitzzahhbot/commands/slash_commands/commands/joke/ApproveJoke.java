@@ -35,10 +35,12 @@ import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import io.github.pitzzahh.util.utilities.validation.Validator;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
-import org.springframework.stereotype.Component;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.BotSlashCommand;
 import net.dv8tion.jda.api.Permission;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.Optional;
 
 import static java.awt.Color.RED;
 import static java.awt.Color.YELLOW;
@@ -49,7 +51,7 @@ import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@Component
+@BotSlashCommand
 public record ApproveJoke(
         MessageUtilService messageUtilService,
         JokesService jokesService,
@@ -102,56 +104,69 @@ public record ApproveJoke(
                         "Invalid joke id",
                         String.format("Joke id must be a whole number: %s", idOption.getAsString())
                 );
-                context.getEvent()
-                        .getInteraction()
-                        .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                        .queue(m -> m.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), TimeUnit.MINUTES));
-                throw new IllegalArgumentException("Joke id must be a whole number");
-            }
-            boolean noJokeWithId = jokesService.getSubmittedJokes()
-                    .stream()
-                    .noneMatch(j -> j.id() == Integer.parseInt(idOption.getAsString()));
-            if (noJokeWithId) {
-                log.info("No joke with id: {}", idOption.getAsString());
-                messageUtilService.generateAutoDeleteMessage(
-                        context.event(),
-                        YELLOW,
-                        "Not found",
-                        String.format("No joke with id %s", idOption.getAsString())
+                context.replyEmbeds(
+                        messageUtilService.getEmbedBuilder().build(),
+                        false,
+                        hook -> hook.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), TimeUnit.MINUTES)
                 );
-            } else {
-                log.info("Joke with id: {} found", idOption.getAsString());
-                jokesService
-                        .getSubmittedJokes()
-                        .forEach(j -> {
-                            if (j.id() == Integer.parseInt(idOption.getAsString())) {
-                                log.info(String.format("Joke with id %s has been approved", idOption.getAsString()));
-                                boolean isApproved = jokesService.approveJoke(j);
-                                if (isApproved) {
-                                    messageUtilService.generateAutoDeleteMessage(
-                                            context.event(),
-                                            YELLOW,
-                                            "Success",
-                                            String.format("Joke with id %s has been approved", idOption.getAsString())
-                                    );
-                                } else {
-                                    log.info(String.format("Joke with id %s has not been approved", idOption.getAsString()));
-                                    messageUtilService.generateAutoDeleteMessage(
-                                            context.event(),
-                                            YELLOW,
-                                            "Failed",
-                                            String.format("Joke with id %s has not been approved", idOption.getAsString())
-                                    );
-                                }
-                            }
-                        });
+                throw new IllegalArgumentException("Joke id must be a whole number");
             }
+            final var id = Integer.parseInt(idOption.getAsString());
+            final var event = context.getEvent();
+            context.deferReply(true);
+            jokesService.getSubmittedJokes()
+                    .thenCompose(jokes -> jokes.stream()
+                            .filter(j -> j.id() == id)
+                            .findFirst()
+                            .map(joke -> jokesService.approveJoke(joke).thenApply(Optional::of))
+                            .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty())))
+                    .handle((approved, e) -> {
+                        if (e != null) {
+                            log.error("Error while approving joke with id {}", id, e);
+                            messageUtilService.generateAutoDeleteMessage(
+                                    event,
+                                    YELLOW,
+                                    "Failed",
+                                    "I couldn't reach the joke api at the moment 😢."
+                            );
+                        } else if (approved.isEmpty()) {
+                            log.info("No joke with id: {}", id);
+                            messageUtilService.generateAutoDeleteMessage(
+                                    event,
+                                    YELLOW,
+                                    "Not found",
+                                    String.format("No joke with id %s", id)
+                            );
+                        } else if (approved.get()) {
+                            log.info(String.format("Joke with id %s has been approved", id));
+                            messageUtilService.generateAutoDeleteMessage(
+                                    event,
+                                    YELLOW,
+                                    "Success",
+                                    String.format("Joke with id %s has been approved", id)
+                            );
+                        } else {
+                            log.info(String.format("Joke with id %s has not been approved", id));
+                            messageUtilService.generateAutoDeleteMessage(
+                                    event,
+                                    YELLOW,
+                                    "Failed",
+                                    String.format("Joke with id %s has not been approved", id)
+                            );
+                        }
+                        event.getHook()
+                                .editOriginalEmbeds(messageUtilService.getEmbedBuilder().build())
+                                .queue(m -> event.getHook().deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), TimeUnit.MINUTES));
+                        return null;
+                    })
+                    .exceptionally(context::replyFailure);
+            return;
         }
-        context.getEvent()
-                .getInteraction()
-                .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                .setEphemeral(true)
-                .queue(m -> m.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), TimeUnit.MINUTES));
+        context.replyEmbeds(
+                messageUtilService.getEmbedBuilder().build(),
+                true,
+                hook -> hook.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), TimeUnit.MINUTES)
+        );
     }
 
     /**
@@ -193,4 +208,16 @@ public record ApproveJoke(
     public Supplier<String> description() {
         return () -> "Approves joke requests";
     }
+
+    /**
+     * Supplies whether the reply is only shown to the user.
+     * Approving jokes is for reviewers, so the reply stays hidden even when it is deferred.
+     *
+     * @return a {@code Supplier<Boolean>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<Boolean> ephemeral() {
+        return () -> true;
+    }
 }
@@ -24,36 +24,34 @@
 
 package tech.araopj.springpitzzahhbot.commands.slash_commands.commands.joke;
 
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import tech.araopj.springpitzzahhbot.services.slash_commands.JokeOptionsService;
 import tech.araopj.springpitzzahhbot.services.slash_commands.JokesService;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.CommandContext;
 import tech.araopj.springpitzzahhbot.services.MessageUtilService;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
+import tech.araopj.springpitzzahhbot.commands.RateLimit;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import tech.araopj.springpitzzahhbot.configs.HttpConfig;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.stereotype.Component;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.BotSlashCommand;
 import static java.time.LocalDateTime.now;
 import static java.lang.String.format;
 import static java.awt.Color.YELLOW;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
-import java.net.http.HttpResponse;
+import java.time.Duration;
 import static java.awt.Color.CYAN;
 import lombok.extern.slf4j.Slf4j;
-import java.io.IOException;
 import java.time.ZoneId;
-import java.net.URI;
 
 @Slf4j
-@Component
+@BotSlashCommand
 public record GetJoke(
         MessageUtilService messageUtilService,
-        JokesService jokesService,
-        HttpConfig httpConfig
+        JokeOptionsService jokeOptionsService,
+        JokesService jokesService
 ) implements SlashCommand {
 
     /**
@@ -72,71 +70,30 @@ public record GetJoke(
      * @param context the command context containing the information about the command.
      */
     private void process(CommandContext context){
-        var url = jokesService.createJokeRequestUrl(
-                context.getEvent().getOption("category"),
-                context.getEvent().getOption("language")
-        );
-        log.info("Get Joke url: {}", url);
-        final var REQUEST = httpConfig.httpBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
-
-        final HttpResponse<String> RESPONSE;
-
-        try {
-            RESPONSE = httpConfig.httpClient().send(REQUEST, HttpResponse.BodyHandlers.ofString());
-            log.info("Response from joke api: {}", RESPONSE.body());
-        } catch (IOException | InterruptedException e) {
-            log.error("Error while sending request to joke api", e);
-            throw new RuntimeException(e);
-        }
-
-        if (RESPONSE.statusCode() == 200) {
-
-            var apiResponse = RESPONSE.body();
-
-            String joke;
-
-            try {
-                joke = new ObjectMapper().readTree(apiResponse).get("joke").asText();
-            } catch (JsonProcessingException e) {
-                log.error("Error while parsing joke api response", e);
-                throw new RuntimeException(e);
-            }
-
-            messageUtilService.getEmbedBuilder()
-                    .clear()
-                    .clearFields()
-                    .setColor(CYAN)
-                    .setTitle("GetJoke of the day")
-                    .setDescription(joke != null ? joke : "No joke found")
-                    .setTimestamp(now(ZoneId.of("UTC")))
-                    .setFooter(
-                            format("Created by %s", context.getGuild().getJDA().getSelfUser().getAsTag()),
-                            context.getGuild().getJDA().getSelfUser().getAvatarUrl()
-                    );
-            context.getEvent()
-                    .getInteraction()
-                    .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                    .queue();
-        } else {
-            messageUtilService.getEmbedBuilder()
-                    .clear()
-                    .clearFields()
-                    .setColor(YELLOW)
-                    .setTitle("No joke found")
-                    .setDescription("I couldn't find a joke for you 😢.")
-                    .setTimestamp(now(ZoneId.of("UTC")))
-                    .setFooter(
-                            format("Created by %s", context.getGuild().getJDA().getSelfUser().getAsTag()),
-                            context.getGuild().getJDA().getSelfUser().getAvatarUrl()
-                    );
-            context.getEvent()
-                    .getInteraction()
-                    .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                    .queue();
+        final var event = context.getEvent();
+        if (!jokeOptionsService.areKnown(event.getOption("category"), event.getOption("language"))) {
+            context.reply("Please pick a category and a language from the suggestions", true);
+            return;
         }
+        final var selfUser = event.getJDA().getSelfUser();
+        context.deferReply(false);
+        jokesService.getRandomJoke(event.getOption("category"), event.getOption("language"))
+                .handle((joke, e) -> {
+                    if (e != null) log.error("Error while getting a joke from the joke api", e);
+                    final var found = e == null && joke.isPresent();
+                    final var embed = messageUtilService.getEmbedBuilder()
+                            .clear()
+                            .clearFields()
+                            .setColor(found ? CYAN : YELLOW)
+                            .setTitle(found ? "GetJoke of the day" : "No joke found")
+                            .setDescription(found ? joke.get() : "I couldn't find a joke for you 😢.")
+                            .setTimestamp(now(ZoneId.of("UTC")))
+                            .setFooter(format("Created by %s", selfUser.getAsTag()), selfUser.getAvatarUrl())
+                            .build();
+                    event.getHook().editOriginalEmbeds(embed).queue();
+                    return null;
+                })
+                .exceptionally(context::replyFailure);
     }
 
     /**
@@ -163,13 +120,24 @@ public record GetJoke(
                 .addOptions(
                         new OptionData(OptionType.STRING, "category", "Category of the joke", false)
                                 .setDescription("Select your desired joke category")
-                                .addChoices(jokesService.getCategories()),
+                                .setAutoComplete(true),
                         new OptionData(OptionType.STRING, "language", "Language of the joke", false)
                                 .setDescription("Select your desired joke language")
-                                .addChoices(jokesService.getLanguages())
+                                .setAutoComplete(true)
                 );
     }
 
+    /**
+     * Suggests the categories and languages known to the jokes API.
+     *
+     * @return a {@code Consumer<CommandAutoCompleteInteractionEvent>}.
+     * @see JokeOptionsService
+     */
+    @Override
+    public Consumer<CommandAutoCompleteInteractionEvent> autoComplete() {
+        return jokeOptionsService::autoComplete;
+    }
+
     /**
      * Supplies the description of a slash command.
      *
@@ -180,4 +148,27 @@ public record GetJoke(
     public Supplier<String> description() {
         return () -> "Get a random GetJoke";
     }
+
+    /**
+     * Supplies how often a single user may use the command.
+     * Each joke is fetched from the jokes API, so a user gets a few in a row and a guild shares a larger budget.
+     *
+     * @return a {@code Supplier<RateLimit>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<RateLimit> userRateLimit() {
+        return () -> RateLimit.of(3, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Supplies how often the command may be used in a guild.
+     *
+     * @return a {@code Supplier<RateLimit>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<RateLimit> guildRateLimit() {
+        return () -> RateLimit.of(20, Duration.ofMinutes(1));
+    }
 }
@@ -24,33 +24,32 @@
 
 package tech.araopj.springpitzzahhbot.commands.slash_commands.commands.joke;
 
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import tech.araopj.springpitzzahhbot.services.slash_commands.JokeOptionsService;
 import tech.araopj.springpitzzahhbot.services.slash_commands.JokesService;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.CommandContext;
 import tech.araopj.springpitzzahhbot.services.MessageUtilService;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
+import tech.araopj.springpitzzahhbot.commands.RateLimit;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.internal.interactions.CommandDataImpl;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
-import tech.araopj.springpitzzahhbot.configs.HttpConfig;
 import static java.util.concurrent.TimeUnit.MINUTES;
-import org.springframework.stereotype.Component;
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.BotSlashCommand;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
 import static java.awt.Color.CYAN;
 import static java.awt.Color.YELLOW;
 
 @Slf4j
-@Component
+@BotSlashCommand
 public record SubmitJoke(
         MessageUtilService messageUtilService,
-        JokesService jokesService,
-        HttpConfig httpConfig
+        JokeOptionsService jokeOptionsService,
+        JokesService jokesService
 ) implements SlashCommand {
 
     /**
@@ -70,68 +69,44 @@ public record SubmitJoke(
      * @param context the command context containing the information about the command.
      */
     private void process(CommandContext context) {
-
-        var url = jokesService.createJokeSubmitUrl();
-
-        log.info("Submit Joke url: {}", url);
-        var jokeSubmitBody = jokesService.createJokeSubmitBody(
-                context.getEvent().getOption("joke"),
-                context.getEvent().getOption("category"),
-                context.getEvent().getOption("language")
-        );
-        log.info("Submit Joke body: {}", jokeSubmitBody);
-        final var httpRequest = httpConfig.httpBuilder()
-                .uri(URI.create(url))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(jokeSubmitBody))
-                .build();
-
-        final HttpResponse<String> response;
-
-        try {
-            response = httpConfig.httpClient().send(httpRequest, HttpResponse.BodyHandlers.ofString());
-            log.info("Response from joke api: {}", response.body());
-        } catch (IOException | InterruptedException e) {
-            log.error("Error while sending request to joke api", e);
-            throw new RuntimeException(e);
-        }
-
-        if (response.statusCode() == 200) {
-            messageUtilService.generateAutoDeleteMessage(
-                    context.event(),
-                    CYAN,
-                    response.body(),
-                    "Your joke has been sent to the joke api. It will be reviewed and added to the joke api if it is good enough."
-            );
-            context.getEvent()
-                    .getInteraction()
-                    .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                    .queue(m -> m.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES));
-        }
-        else if(response.statusCode() == 400) {
-            messageUtilService.generateAutoDeleteMessage(
-                    context.event(),
-                    YELLOW,
-                    "Failed to send joke to joke api",
-                    "Your joke is already the same as another joke in the joke api. Please try again with a different joke."
-            );
-            context.getEvent()
-                    .getInteraction()
-                    .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                    .queue(m -> m.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES));
-        }
-        else {
-            messageUtilService.generateAutoDeleteMessage(
-                    context.event(),
-                    YELLOW,
-                    "Failed to send joke to joke api",
-                    "I couldn't send your request at the moment 😢."
-            );
-            context.getEvent()
-                    .getInteraction()
-                    .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                    .queue(m -> m.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES));
+        final var event = context.getEvent();
+        if (!jokeOptionsService.areKnown(event.getOption("category"), event.getOption("language"))) {
+            context.reply("Please pick a category and a language from the suggestions", true);
+            return;
         }
+        context.deferReply(false);
+        jokesService.submitJoke(event.getOption("joke"), event.getOption("category"), event.getOption("language"))
+                .handle((response, e) -> {
+                    if (e != null) log.error("Error while sending request to joke api", e);
+                    final var status = e == null ? response.statusCode() : 0;
+                    if (status == 200) {
+                        messageUtilService.generateAutoDeleteMessage(
+                                event,
+                                CYAN,
+                                response.body(),
+                                "Your joke has been sent to the joke api. It will be reviewed and added to the joke api if it is good enough."
+                        );
+                    } else if (status == 400) {
+                        messageUtilService.generateAutoDeleteMessage(
+                                event,
+                                YELLOW,
+                                "Failed to send joke to joke api",
+                                "Your joke is already the same as another joke in the joke api. Please try again with a different joke."
+                        );
+                    } else {
+                        messageUtilService.generateAutoDeleteMessage(
+                                event,
+                                YELLOW,
+                                "Failed to send joke to joke api",
+                                "I couldn't send your request at the moment 😢."
+                        );
+                    }
+                    event.getHook()
+                            .editOriginalEmbeds(messageUtilService.getEmbedBuilder().build())
+                            .queue(m -> event.getHook().deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES));
+                    return null;
+                })
+                .exceptionally(context::replyFailure);
     }
 
     /**
@@ -160,15 +135,26 @@ public record SubmitJoke(
                 .addOptions(
                         new OptionData(OptionType.STRING, "category", "Category of the joke", true)
                                 .setDescription("Select the category of your joke")
-                                .addChoices(jokesService.getCategories()),
+                                .setAutoComplete(true),
                         new OptionData(OptionType.STRING, "language", "Language of the joke", true)
                                 .setDescription("Select the language of your joke")
-                                .addChoices(jokesService.getLanguages()),
+                                .setAutoComplete(true),
                         new OptionData(OptionType.STRING, "joke", "The joke you to submit", true)
                                 .setDescription("Enter your joke")
                 );
     }
 
+    /**
+     * Suggests the categories and languages known to the jokes API.
+     *
+     * @return a {@code Consumer<CommandAutoCompleteInteractionEvent>}.
+     * @see JokeOptionsService
+     */
+    @Override
+    public Consumer<CommandAutoCompleteInteractionEvent> autoComplete() {
+        return jokeOptionsService::autoComplete;
+    }
+
     /**
      * Supplies the description of a slash command.
      *
@@ -179,4 +165,27 @@ public record SubmitJoke(
     public Supplier<String> description() {
         return () -> "Submit a joke to the bot";
     }
+
+    /**
+     * Supplies how often a single user may use the command.
+     * Submitted jokes wait for review on the jokes API, so submissions are kept rare.
+     *
+     * @return a {@code Supplier<RateLimit>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<RateLimit> userRateLimit() {
+        return () -> RateLimit.of(2, Duration.ofMinutes(10));
+    }
+
+    /**
+     * Supplies how often the command may be used in a guild.
+     *
+     * @return a {@code Supplier<RateLimit>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<RateLimit> guildRateLimit() {
+        return () -> RateLimit.of(10, Duration.ofMinutes(10));
+    }
 }
@@ -28,7 +28,7 @@ import tech.araopj.springpitzzahhbot.services.slash_commands.JokesService;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.CommandContext;
 import tech.araopj.springpitzzahhbot.services.MessageUtilService;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
-import org.springframework.stereotype.Component;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.BotSlashCommand;
 import java.awt.*;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -39,7 +39,7 @@ import lombok.extern.slf4j.Slf4j;
 import static java.lang.String.format;
 
 @Slf4j
-@Component
+@BotSlashCommand
 public record ViewSubmittedJokes(
         MessageUtilService messageUtilService,
         JokesService jokesService
@@ -56,24 +56,27 @@ public record ViewSubmittedJokes(
     }
 
     private void process(CommandContext context) {
-
-        messageUtilService.generateBotSentMessage(
-                context.getEvent(),
-                Color.YELLOW,
-                "List of Submitted Jokes",
-                "Select the id of the joke to be approved",
-                LocalDateTime.now(ZoneId.of("UTC")),
-                format("Created by %s", context.getGuild().getJDA().getSelfUser().getAsTag())
-        );
-        jokesService.getSubmittedJokes()
-                .forEach(joke -> messageUtilService
-                        .getEmbedBuilder()
-                        .addField(String.valueOf(joke.id()), joke.joke(), true));
-        context.getEvent()
-                .getInteraction()
-                .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                .setEphemeral(true)
-                .queue(m -> m.deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), TimeUnit.MINUTES));
+        final var event = context.getEvent();
+        final var footer = format("Created by %s", context.getGuild().getJDA().getSelfUser().getAsTag());
+        context.deferReply(true);
+        jokesService.getSubmittedJokes().handle((jokes, e) -> {
+            if (e != null) log.error("Error while getting the submitted jokes", e);
+            messageUtilService.generateBotSentMessage(
+                    event,
+                    Color.YELLOW,
+                    "List of Submitted Jokes",
+                    e == null ? "Select the id of the joke to be approved" : "I couldn't get the submitted jokes at the moment 😢.",
+                    LocalDateTime.now(ZoneId.of("UTC")),
+                    footer
+            );
+            if (jokes != null) jokes.forEach(joke -> messageUtilService
+                    .getEmbedBuilder()
+                    .addField(String.valueOf(joke.id()), joke.joke(), true));
+            event.getHook()
+                    .editOriginalEmbeds(messageUtilService.getEmbedBuilder().build())
+                    .queue(m -> event.getHook().deleteOriginal().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), TimeUnit.MINUTES));
+            return null;
+        }).exceptionally(context::replyFailure);
     }
 
     /**
@@ -97,4 +100,16 @@ public record ViewSubmittedJokes(
     public Supplier<String> description() {
         return "View all the jokes submitted by the users"::toString;
     }
+
+    /**
+     * Supplies whether the reply is only shown to the user.
+     * The reply lists submitted jokes, so it stays hidden even when it is deferred.
+     *
+     * @return a {@code Supplier<Boolean>}.
+     * @see Supplier
+     */
+    @Override
+    public Supplier<Boolean> ephemeral() {
+        return () -> true;
+    }
 }
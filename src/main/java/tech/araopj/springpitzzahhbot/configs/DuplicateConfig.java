@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.beans.factory.annotation.Value;
+import lombok.Getter;
+
+@Getter
+@Configuration
+public class DuplicateConfig {
+
+    @Value("${bot.moderation.duplicates.messages-per-channel:50}")
+    private int messagesPerChannel;
+
+    @Value("${bot.moderation.duplicates.max-channels:10000}")
+    private int maxChannels;
+
+    @Value("${bot.moderation.duplicates.window-in-seconds:60}")
+    private long windowInSeconds;
+
+    @Value("${bot.moderation.duplicates.max-distance:10}")
+    private int maxDistance;
+
+    @Value("${bot.moderation.duplicates.min-length:12}")
+    private int minLength;
+
+    @Value("${bot.moderation.duplicates.max-repeats:3}")
+    private int maxRepeats;
+
+    @Value("${bot.moderation.duplicates.max-authors:4}")
+    private int maxAuthors;
+
+}
@@ -30,6 +30,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.context.annotation.Bean;
 import java.net.http.HttpRequest;
 import java.net.http.HttpClient;
+import java.util.concurrent.Semaphore;
 import lombok.Getter;
 
 @Getter
@@ -39,12 +40,30 @@ public class HttpConfig {
     @Value("${joke-api.url}")
     private String jokeApiUrl;
 
+    @Value("${joke-api.options-refresh-interval-in-minutes:30}")
+    private long jokeOptionsRefreshIntervalInMinutes;
+
+    @Value("${joke-api.max-concurrent-requests:8}")
+    private int jokeApiMaxConcurrentRequests;
+
+    @Value("${joke-api.request-timeout-in-seconds:10}")
+    private long jokeApiRequestTimeoutInSeconds;
+
     @Bean
     @Async
     public HttpClient httpClient() {
         return HttpClient.newHttpClient();
     }
 
+    /**
+     * Bounds the requests to the jokes API in flight, joke commands return before their request completes.
+     * @return the permits, one per request.
+     */
+    @Bean
+    public Semaphore jokeApiPermits() {
+        return new Semaphore(jokeApiMaxConcurrentRequests);
+    }
+
     @Bean
     @Async
     public HttpRequest.Builder httpBuilder() {
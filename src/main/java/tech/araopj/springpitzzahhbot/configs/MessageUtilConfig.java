@@ -25,9 +25,9 @@ package tech.araopj.springpitzzahhbot.configs;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
 import net.dv8tion.jda.api.MessageBuilder;
 import net.dv8tion.jda.api.EmbedBuilder;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 @Getter
@@ -40,14 +40,29 @@ public class MessageUtilConfig {
     @Value("${bot.moderation.message-deletion-delay-in-seconds}")
     public int messageDeletionDelayInSeconds;
 
-    @Bean
+    @Getter(AccessLevel.NONE)
+    private final ThreadLocal<EmbedBuilder> embedBuilders = ThreadLocal.withInitial(EmbedBuilder::new);
+
+    @Getter(AccessLevel.NONE)
+    private final ThreadLocal<MessageBuilder> messageBuilders = ThreadLocal.withInitial(MessageBuilder::new);
+
+    /**
+     * Gets the embed builder of the calling thread.
+     * Messages are built on JDA's threads and on the moderation pipeline at the same time, so each
+     * thread fills and builds its own builder.
+     * @return the {@code EmbedBuilder} owned by the calling thread.
+     */
     public EmbedBuilder getEmbedBuilder() {
-        return new EmbedBuilder();
+        return embedBuilders.get();
     }
 
-    @Bean
+    /**
+     * Gets the message builder of the calling thread.
+     * @return the {@code MessageBuilder} owned by the calling thread.
+     * @see #getEmbedBuilder()
+     */
     public MessageBuilder getMessageBuilder() {
-        return new MessageBuilder();
+        return messageBuilders.get();
     }
 
 }
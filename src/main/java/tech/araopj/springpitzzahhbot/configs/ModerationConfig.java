@@ -1,18 +1,49 @@
 package tech.araopj.springpitzzahhbot.configs;
 
+import tech.araopj.springpitzzahhbot.moderation.AhoCorasick;
+import tech.araopj.springpitzzahhbot.moderation.AuditLog;
+import tech.araopj.springpitzzahhbot.moderation.DomainTrie;
+import tech.araopj.springpitzzahhbot.moderation.ViolationScores;
+import tech.araopj.springpitzzahhbot.moderation.WordOverlay;
 import org.springframework.context.annotation.Configuration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.context.annotation.Bean;
+import lombok.RequiredArgsConstructor;
+import java.time.Duration;
 import java.util.*;
 
 @Configuration
+@RequiredArgsConstructor
 public class ModerationConfig {
+
+    private final ViolationConfig violationConfig;
+
+    @Bean
+    public ViolationScores violations() {
+        return new ViolationScores(
+                Runtime.getRuntime().availableProcessors(),
+                Duration.ofMinutes(violationConfig.getHalfLifeInMinutes())
+        );
+    }
+
+    @Bean
+    public AuditLog auditLog() {
+        return new AuditLog(violationConfig.getAuditCapacity());
+    }
+
+    @Bean
+    public AtomicReference<AhoCorasick> swearWordMatcher() {
+        return new AtomicReference<>(AhoCorasick.empty());
+    }
+
     @Bean
-    public Map<String, Integer> violations() {
-        return new HashMap<>();
+    public AtomicReference<DomainTrie> blockedDomains() {
+        return new AtomicReference<>(DomainTrie.empty());
     }
 
     @Bean
-    public List<String> warnings() {
-        return new ArrayList<>();
+    public Map<Long, WordOverlay> guildWordOverlays() {
+        return new ConcurrentHashMap<>();
     }
 }
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.beans.factory.annotation.Value;
+import lombok.Getter;
+
+@Getter
+@Configuration
+public class ViolationConfig {
+
+    @Value("${bot.moderation.violations.half-life-in-minutes:60}")
+    private long halfLifeInMinutes;
+
+    @Value("${bot.moderation.violations.timeout-score:2.5}")
+    private double timeoutScore;
+
+    @Value("${bot.moderation.violations.epsilon:0.05}")
+    private double epsilon;
+
+    @Value("${bot.moderation.violations.sweep-interval-in-minutes:10}")
+    private long sweepIntervalInMinutes;
+
+    @Value("${bot.moderation.journal.directory:moderation-journal}")
+    private String journalDirectory;
+
+    @Value("${bot.moderation.journal.records-per-segment:262144}")
+    private int recordsPerSegment;
+
+    @Value("${bot.moderation.journal.flush-interval-in-millis:200}")
+    private long flushIntervalInMillis;
+
+    @Value("${bot.moderation.journal.snapshot-interval-in-minutes:30}")
+    private long snapshotIntervalInMinutes;
+
+    @Value("${bot.moderation.audit.capacity:100000}")
+    private int auditCapacity;
+
+}
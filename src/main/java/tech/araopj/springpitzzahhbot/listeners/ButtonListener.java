@@ -24,6 +24,7 @@
 package tech.araopj.springpitzzahhbot.listeners;
 
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.commands.Violations;
 import tech.araopj.springpitzzahhbot.services.MessageUtilService;
 import org.springframework.beans.factory.annotation.Autowired;
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -40,10 +41,12 @@ import java.util.Objects;
 public class ButtonListener extends ListenerAdapter {
 
     private final MessageUtilService messageUtilService;
+    private final Violations violations;
 
     @Autowired
-    public ButtonListener(MessageUtilService messageUtilService) {
+    public ButtonListener(MessageUtilService messageUtilService, Violations violations) {
         this.messageUtilService = messageUtilService;
+        this.violations = violations;
     }
 
     @Override
@@ -51,6 +54,7 @@ public class ButtonListener extends ListenerAdapter {
         final var ID = event.getButton().getId();
         final var MEMBER = event.getMember();
         if ("ok".equals(ID)) event.getInteraction().getMessage().delete().queue();
+        else if (ID != null && ID.startsWith(Violations.BUTTON_PREFIX)) violations.onButton(event);
         else if ("verify-button".equals(ID)) {
             final var VERIFIED_ROLE = Objects.requireNonNull(event.getGuild(), "Cannot find verified role")
                     .getRolesByName("verified", false)
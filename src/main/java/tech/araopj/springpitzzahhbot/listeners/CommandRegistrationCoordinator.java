@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.listeners;
+
+import tech.araopj.springpitzzahhbot.services.CommandRegistrationService;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import tech.araopj.springpitzzahhbot.commands.CommandsConfig;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.CompletableFuture;
+import net.dv8tion.jda.api.events.ReadyEvent;
+import org.springframework.lang.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import net.dv8tion.jda.api.JDA;
+
+/**
+ * Registers the slash commands once per process.
+ * <p>
+ * Global commands are shared by every shard, so they are registered when shard 0 is ready instead of once for
+ * every guild. When a development guild is configured the commands are registered in that guild only, where
+ * changes show up at once, and no global commands are touched. In global mode the guild commands older versions
+ * of the bot registered in every guild are removed once, so commands are not listed twice.
+ */
+@Slf4j
+@Component
+public class CommandRegistrationCoordinator extends ListenerAdapter {
+
+    private final CommandRegistrationService commandRegistrationService;
+    private final AtomicBoolean registered = new AtomicBoolean();
+    private final long developmentGuildId;
+
+    public CommandRegistrationCoordinator(CommandRegistrationService commandRegistrationService, CommandsConfig commandsConfig) {
+        this.commandRegistrationService = commandRegistrationService;
+        this.developmentGuildId = commandsConfig.getDevelopmentGuildId();
+    }
+
+    @Override
+    public void onReady(@NonNull ReadyEvent event) {
+        if (developmentGuildId == 0 && event.getJDA().getShardInfo().getShardId() == 0) registerOnce(event.getJDA());
+    }
+
+    @Override
+    public void onGuildReady(@NonNull GuildReadyEvent event) {
+        final var guild = event.getGuild();
+        if (developmentGuildId != 0 && guild.getIdLong() == developmentGuildId) registerOnce(event.getJDA());
+        else if (developmentGuildId == 0) commandRegistrationService.clearLegacyGuildCommands(guild).whenComplete((cleared, e) -> {
+            if (e != null) log.warn("Cannot clear the legacy guild commands of {}, trying again on the next start", guild.getId(), e);
+        });
+    }
+
+    /**
+     * Registers the slash commands where this process publishes them, whether or not they were registered before.
+     * @param jda any shard of the bot, the shard that holds the development guild in guild mode.
+     * @return a future that completes with {@code true} if commands were uploaded.
+     */
+    public CompletableFuture<Boolean> register(JDA jda) {
+        if (developmentGuildId == 0) return commandRegistrationService.syncGlobal(jda);
+        final var guild = jda.getShardManager() == null ? jda.getGuildById(developmentGuildId) : jda.getShardManager().getGuildById(developmentGuildId);
+        if (guild == null) return CompletableFuture.failedFuture(new IllegalStateException("Cannot find the development guild " + developmentGuildId));
+        return commandRegistrationService.syncGuild(guild);
+    }
+
+    private void registerOnce(JDA jda) {
+        if (!registered.compareAndSet(false, true)) return;
+        register(jda).whenComplete((uploaded, e) -> {
+            if (e == null) return;
+            log.error("Cannot register the slash commands, they will be registered again on the next ready event", e);
+            registered.set(false);
+        });
+    }
+}
@@ -23,10 +23,7 @@
  */
 package tech.araopj.springpitzzahhbot.listeners;
 
-import static io.github.pitzzahh.util.utilities.validation.Validator.isDecimalNumber;
-import static io.github.pitzzahh.util.utilities.validation.Validator.isWholeNumber;
 import static java.util.concurrent.TimeUnit.MINUTES;
-import static java.util.concurrent.TimeUnit.SECONDS;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,15 +34,15 @@ import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Component;
 import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommandManager;
+import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommandParser;
 import tech.araopj.springpitzzahhbot.services.CommandsService;
+import tech.araopj.springpitzzahhbot.services.PrefixService;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.commands.Confession;
 import tech.araopj.springpitzzahhbot.services.RoleService;
 import tech.araopj.springpitzzahhbot.services.slash_commands.ConfessionService;
 import tech.araopj.springpitzzahhbot.services.configs.CategoryService;
 import tech.araopj.springpitzzahhbot.services.configs.ChannelService;
-import tech.araopj.springpitzzahhbot.services.slash_commands.GameService;
-import tech.araopj.springpitzzahhbot.services.configs.MessageCheckerService;
-import tech.araopj.springpitzzahhbot.services.configs.ViolationService;
+import tech.araopj.springpitzzahhbot.services.configs.ModerationPipelineService;
 import tech.araopj.springpitzzahhbot.services.MessageUtilService;
 
 import java.time.ZoneId;
@@ -64,27 +61,26 @@ import static java.time.LocalDateTime.now;
 @AllArgsConstructor
 public class MessageListener extends ListenerAdapter { // TODO: Decouple code
 
-    private final MessageCheckerService messageCheckerService;
+    private final ModerationPipelineService moderationPipelineService;
     private final ChatCommandManager chatCommandManager;
     private final MessageUtilService messageUtilService;
     private final ConfessionService confessionService;
-    private final ViolationService violationService;
+    private final PrefixService prefixService;
     private final CommandsService commandsService;
     private final CategoryService categoryService;
     private final ChannelService channelService;
-    private final GameService gameService;
     private final RoleService roleService;
     private final Confession confession;
 
     @Override
     public void onMessageReceived(@NotNull MessageReceivedEvent event) {
         final var AUTHOR = event.getAuthor();
-        final var PREFIX = commandsService.getPrefix();
         final var MESSAGE = event.getMessage().getContentRaw();
-        if (MESSAGE.startsWith(PREFIX)) {
+        final var PARSED = ChatCommandParser.parse(MESSAGE, prefixService.getPrefixes(event.isFromGuild() ? event.getGuild().getIdLong() : 0));
+        if (PARSED != null) {
             log.info("ChatCommand received: {}", MESSAGE);
-            log.info("Commands started with: {}", PREFIX);
-            chatCommandManager.handle(event);
+            log.info("Commands started with: {}", PARSED.prefix());
+            chatCommandManager.handle(event, PARSED);
         } else {
             final var adminRole = roleService.getRoleOrElseThrow(event.getGuild(), "Cannot find admin role", "Admin", true);
 
@@ -119,9 +115,10 @@ public class MessageListener extends ListenerAdapter { // TODO: Decouple code
                                                 now(ZoneId.of("UTC")),
                                                 format("Created by %s", event.getJDA().getSelfUser().getAsTag())
                                         );
+                                        final var embed = messageUtilService.getEmbedBuilder().build();
                                         category.createTextChannel(confessionService.enterSecretChannelName())
                                                 .setTopic("This is a channel where you can write your confessions")
-                                                .queue(c -> c.sendMessageEmbeds(messageUtilService.getEmbedBuilder().build()).queue());
+                                                .queue(c -> c.sendMessageEmbeds(embed).queue());
                                         category.createTextChannel(sentSecretChannel)
                                                 .addPermissionOverride(verifiedRole, null, EnumSet.of(Permission.MESSAGE_SEND))
                                                 .setTopic("This is a channel contains all the confessions made by users")
@@ -143,70 +140,7 @@ public class MessageListener extends ListenerAdapter { // TODO: Decouple code
                     }
 
                     // TODO: refactor embedded messages, remove code and effort duplication
-                    else if (!AUTHOR.isBot()) {
-                        var contains = messageCheckerService.searchForBadWord(event.getMessage().getContentRaw());
-                        log.info("is bad word = " + contains);
-                        if (contains && !AUTHOR.isBot()) {
-                            violationService.addViolation(AUTHOR.getName());
-                            var isVeryBad = violationService.violatedThreeTimes(AUTHOR.getName());
-                            if (isVeryBad) {
-                                messageUtilService.generateBotSentMessage(
-                                        event,
-                                        RED,
-                                        "Violated Three Times",
-                                        "Cannot send messages until " + now(ZoneId.of("UTC")).plusMinutes(5),
-                                        now(ZoneId.of("UTC")),
-                                        format("Scanned by %s", event.getJDA().getSelfUser().getAsTag())
-                                );
-                                event.getChannel()
-                                        .sendMessageEmbeds(messageUtilService.getEmbedBuilder().build())
-                                        .queue();
-                                AUTHOR.retrieveProfile()
-                                        .timeout(5, MINUTES) // TODO: use config to get the time out
-                                        .queue();
-                                event.getMessage().delete().queueAfter(messageUtilService.getMessageDeletionDelayInSeconds(), SECONDS);
-                            } else {
-                                messageUtilService.generateAutoDeleteMessage(event, RED, "Bad Word Detected", "Please don't use bad words");
-                                event.getMessage()
-                                        .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                                        .mentionRepliedUser(true)
-                                        .queue(m -> m.delete().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES));
-                                event.getMessage().delete().queueAfter(messageUtilService.getMessageDeletionDelayInSeconds(), SECONDS);
-                            }
-                        }
-
-                        if (gameService.isTheOneWhoPlays(AUTHOR.getName())) {
-                            isWholeNumber().test(MESSAGE);
-                            if (isWholeNumber().or(isDecimalNumber()).test(MESSAGE)) {
-                                final var IS_CORRECT = gameService.processAnswer(MESSAGE);
-                                if (IS_CORRECT) {
-                                    messageUtilService.generateBotSentMessage(
-                                            event,
-                                            BLUE,
-                                            "Correct!",
-                                            "You got it right!",
-                                            now(ZoneId.of("UTC")),
-                                            format("Checked by %s", event.getJDA().getSelfUser().getAsTag())
-                                    );
-                                    event.getMessage()
-                                            .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                                            .queue();
-                                } else {
-                                    messageUtilService.generateBotSentMessage(
-                                            event,
-                                            BLUE,
-                                            "Wrong answer!",
-                                            "Correct answer is " + gameService.getAnswer(AUTHOR.getName()),
-                                            now(ZoneId.of("UTC")),
-                                            format("Checked by %s", event.getJDA().getSelfUser().getAsTag())
-                                    );
-                                    event.getMessage()
-                                            .replyEmbeds(messageUtilService.getEmbedBuilder().build())
-                                            .queue();
-                                }
-                            }
-                        }
-                    }
+                    else if (!AUTHOR.isBot()) moderationPipelineService.submit(event);
                 }
             }
         }
@@ -24,15 +24,12 @@
 
 package tech.araopj.springpitzzahhbot.listeners;
 
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommandManager;
-import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
-import tech.araopj.springpitzzahhbot.services.CommandsService;
-import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.springframework.stereotype.Component;
 import org.springframework.lang.NonNull;
-import java.util.function.Supplier;
 import lombok.AllArgsConstructor;
 
 @Component
@@ -40,7 +37,6 @@ import lombok.AllArgsConstructor;
 public class SlashCommandListener extends ListenerAdapter {
 
     private final SlashCommandManager slashCommandManager;
-    private final CommandsService commandsService;
 
     @Override
     public void onSlashCommandInteraction(@NonNull SlashCommandInteractionEvent event) {
@@ -48,17 +44,7 @@ public class SlashCommandListener extends ListenerAdapter {
     }
 
     @Override
-    public void onGuildReady(@NonNull GuildReadyEvent event) {
-        final var COMMANDS = commandsService.slashCommands();
-        var guild = event.getGuild();
-        var COM = COMMANDS.values()
-                .stream()
-                .map(SlashCommand::getCommandData)
-                .map(Supplier::get)
-                .toList();
-
-        guild.getJDA().updateCommands()
-                .addCommands(COM)
-                .queue();
+    public void onCommandAutoCompleteInteraction(@NonNull CommandAutoCompleteInteractionEvent event) {
+        slashCommandManager.handleAutoComplete(event);
     }
 }
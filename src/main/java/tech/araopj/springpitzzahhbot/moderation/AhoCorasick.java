@@ -0,0 +1,274 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import java.io.DataOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compiled Aho-Corasick automaton that finds every occurrence of a set of words in one pass over a text.
+ * <p>
+ * Words are matched case-insensitively. Instances are immutable once compiled, so a single automaton
+ * can be shared by every thread that scans messages.
+ */
+public final class AhoCorasick {
+
+    private static final int MAGIC = 0x41434B31;
+    private static final AhoCorasick EMPTY = compile(List.of());
+
+    private final String[] words;
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] failure;
+    private final int[] output;
+    private final int[] outputLink;
+
+    private AhoCorasick(String[] words, int[] edgeStart, char[] edgeChars, int[] edgeTargets,
+                        int[] failure, int[] output, int[] outputLink) {
+        this.words = words;
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.output = output;
+        this.outputLink = outputLink;
+    }
+
+    /**
+     * Gets an automaton that matches nothing.
+     * @return the shared empty automaton.
+     */
+    public static AhoCorasick empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles the given words into an automaton.
+     * Blank entries are ignored and duplicates (ignoring case) are only matched once.
+     * @param words the words to search for.
+     * @return a new {@code AhoCorasick}.
+     */
+    public static AhoCorasick compile(Collection<String> words) {
+        final var unique = new LinkedHashSet<String>();
+        for (var word : words) {
+            if (word == null) continue;
+            var trimmed = word.trim().toLowerCase(Locale.ROOT);
+            if (!trimmed.isEmpty()) unique.add(trimmed);
+        }
+        final var dictionary = unique.toArray(String[]::new);
+
+        final var children = new ArrayList<TreeMap<Character, Integer>>();
+        final var terminal = new ArrayList<Integer>();
+        children.add(new TreeMap<>());
+        terminal.add(-1);
+        for (int w = 0; w < dictionary.length; w++) {
+            var state = 0;
+            for (var c : dictionary[w].toCharArray()) {
+                var next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(c, next);
+                    children.add(new TreeMap<>());
+                    terminal.add(-1);
+                }
+                state = next;
+            }
+            terminal.set(state, w);
+        }
+
+        final var states = children.size();
+        final var edgeStart = new int[states + 1];
+        for (int s = 0; s < states; s++) edgeStart[s + 1] = edgeStart[s] + children.get(s).size();
+        final var edgeChars = new char[edgeStart[states]];
+        final var edgeTargets = new int[edgeStart[states]];
+        for (int s = 0; s < states; s++) {
+            var i = edgeStart[s];
+            for (var edge : children.get(s).entrySet()) {
+                edgeChars[i] = edge.getKey();
+                edgeTargets[i++] = edge.getValue();
+            }
+        }
+
+        final var output = new int[states];
+        for (int s = 0; s < states; s++) output[s] = terminal.get(s);
+        final var failure = new int[states];
+        final var outputLink = new int[states];
+        Arrays.fill(outputLink, -1);
+
+        // breadth first so every failure target is resolved before the states that point to it
+        final var queue = new ArrayDeque<Integer>();
+        for (int i = edgeStart[0]; i < edgeStart[1]; i++) queue.add(edgeTargets[i]);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = edgeStart[state]; i < edgeStart[state + 1]; i++) {
+                var c = edgeChars[i];
+                var child = edgeTargets[i];
+                var fallback = failure[state];
+                int next;
+                while ((next = step(edgeStart, edgeChars, edgeTargets, fallback, c)) < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = Math.max(next, 0);
+                outputLink[child] = output[failure[child]] >= 0 ? failure[child] : outputLink[failure[child]];
+                queue.add(child);
+            }
+        }
+        return new AhoCorasick(dictionary, edgeStart, edgeChars, edgeTargets, failure, output, outputLink);
+    }
+
+    /**
+     * Reads an automaton previously written by {@link #writeTo(DataOutputStream)}.
+     * @param in the stream to read from.
+     * @return the automaton, ready to use without compiling.
+     * @throws IOException if the stream cannot be read or is not a compiled automaton.
+     */
+    public static AhoCorasick readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a compiled word list");
+        final var words = new String[in.readInt()];
+        for (int i = 0; i < words.length; i++) words[i] = in.readUTF();
+        final var edgeStart = readInts(in);
+        final var edgeChars = new char[in.readInt()];
+        for (int i = 0; i < edgeChars.length; i++) edgeChars[i] = in.readChar();
+        return new AhoCorasick(words, edgeStart, edgeChars, readInts(in), readInts(in), readInts(in), readInts(in));
+    }
+
+    /**
+     * Writes this automaton in a binary form that loads without compiling.
+     * @param out the stream to write to.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(words.length);
+        for (var word : words) out.writeUTF(word);
+        writeInts(out, edgeStart);
+        out.writeInt(edgeChars.length);
+        for (var c : edgeChars) out.writeChar(c);
+        writeInts(out, edgeTargets);
+        writeInts(out, failure);
+        writeInts(out, output);
+        writeInts(out, outputLink);
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        final var values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) values[i] = in.readInt();
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (var value : values) out.writeInt(value);
+    }
+
+    private static int step(int[] edgeStart, char[] edgeChars, int[] edgeTargets, int state, char c) {
+        var low = edgeStart[state];
+        var high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            var mid = (low + high) >>> 1;
+            var found = edgeChars[mid];
+            if (found < c) low = mid + 1;
+            else if (found > c) high = mid - 1;
+            else return edgeTargets[mid];
+        }
+        return -1;
+    }
+
+    /**
+     * Scans a region of the text and reports every match to the listener without allocating.
+     * @param text the text to scan.
+     * @param from the index to start scanning from, inclusive.
+     * @param to the index to stop scanning at, exclusive.
+     * @param listener receives each match, returning {@code false} stops the scan.
+     */
+    public void scan(CharSequence text, int from, int to, MatchListener listener) {
+        var state = 0;
+        for (int i = from; i < to; i++) {
+            var c = Character.toLowerCase(text.charAt(i));
+            int next;
+            while ((next = step(edgeStart, edgeChars, edgeTargets, state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = Math.max(next, 0);
+            for (var s = output[state] >= 0 ? state : outputLink[state]; s > 0; s = outputLink[s]) {
+                var word = output[s];
+                if (!listener.onMatch(i + 1 - words[word].length(), i + 1, word)) return;
+            }
+        }
+    }
+
+    /**
+     * Finds every occurrence of the dictionary words in the text, overlapping matches included.
+     * @param text the text to scan.
+     * @return the matches ordered by their end position.
+     */
+    public List<Match> findAll(CharSequence text) {
+        final var matches = new ArrayList<Match>();
+        scan(text, 0, text.length(), (start, end, word) -> matches.add(new Match(start, end, words[word])));
+        return matches;
+    }
+
+    /**
+     * Gets the word with the given index, as reported to a {@code MatchListener}.
+     * @param index the index of the word.
+     * @return the word in lower case.
+     */
+    public String word(int index) {
+        return words[index];
+    }
+
+    /**
+     * The number of distinct words compiled into this automaton.
+     * @return the dictionary size.
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * A dictionary word found in a text.
+     * @param start the index of the first character of the match, inclusive.
+     * @param end the index after the last character of the match, exclusive.
+     * @param word the dictionary word that matched.
+     */
+    public record Match(int start, int end, String word) { }
+
+    /**
+     * Receives the matches of a {@link #scan(CharSequence, int, int, MatchListener)}.
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+        /**
+         * Called for each match.
+         * @param start the index of the first character of the match, inclusive.
+         * @param end the index after the last character of the match, exclusive.
+         * @param word the index of the word, see {@link #word(int)}.
+         * @return {@code true} to keep scanning.
+         */
+        boolean onMatch(int start, int end, int word);
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.NavigableMap;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recent violations, indexed so the history of a member, a channel or a whole guild can be paged
+ * through newest first.
+ * <p>
+ * Each index is a skip list ordered by guild, subject, time and sequence, so a page costs a logarithmic
+ * seek followed by a walk over the entries it returns, however large the log is. A page is requested with
+ * the {@link Cursor} of the last entry seen, so nothing is kept between two pages. The oldest entries are
+ * dropped once the configured capacity is reached.
+ */
+public final class AuditLog {
+
+    private final NavigableMap<Long, Entry> bySequence = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Key, Entry> byUser = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Key, Entry> byChannel = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Key, Entry> byGuild = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // ConcurrentSkipListMap.size() walks the whole map, so the entries are counted here
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    /**
+     * Creates an empty audit log.
+     * @param capacity the number of entries to keep.
+     */
+    public AuditLog(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a record to every index, dropping the oldest entry when the log is full.
+     * @param record the record to add.
+     */
+    public void add(ViolationRecord record) {
+        final var entry = new Entry(sequence.incrementAndGet(), record);
+        bySequence.put(entry.sequence(), entry);
+        byUser.put(Key.of(Scope.USER, entry), entry);
+        byChannel.put(Key.of(Scope.CHANNEL, entry), entry);
+        byGuild.put(Key.of(Scope.GUILD, entry), entry);
+        size.incrementAndGet();
+        while (size.get() > capacity) {
+            final var oldest = bySequence.pollFirstEntry();
+            if (oldest == null) break;
+            size.decrementAndGet();
+            byUser.remove(Key.of(Scope.USER, oldest.getValue()));
+            byChannel.remove(Key.of(Scope.CHANNEL, oldest.getValue()));
+            byGuild.remove(Key.of(Scope.GUILD, oldest.getValue()));
+        }
+    }
+
+    /**
+     * Gets a page of entries.
+     * @param scope which index to use.
+     * @param guildId the id of the guild.
+     * @param subject the id of the user or the channel, ignored for {@link Scope#GUILD}.
+     * @param sinceInMillis the oldest time to include.
+     * @param cursor where the page starts, {@code null} for the newest entries.
+     * @param limit the maximum number of entries.
+     * @return the entries, newest first.
+     */
+    public Page page(Scope scope, long guildId, long subject, long sinceInMillis, Cursor cursor, int limit) {
+        final var owner = scope == Scope.GUILD ? 0 : subject;
+        final var oldest = new Key(guildId, owner, sinceInMillis, Long.MIN_VALUE);
+        final var newest = new Key(guildId, owner, Long.MAX_VALUE, Long.MAX_VALUE);
+        final var index = index(scope);
+        final NavigableMap<Key, Entry> range;
+        if (cursor == null) range = index.subMap(oldest, true, newest, true).descendingMap();
+        else if (cursor.older()) range = index.subMap(oldest, true, new Key(guildId, owner, cursor.time(), cursor.sequence()), false).descendingMap();
+        else range = index.subMap(new Key(guildId, owner, cursor.time(), cursor.sequence()), false, newest, true);
+
+        final var entries = new ArrayList<Entry>(limit);
+        var more = false;
+        for (var entry : range.values()) {
+            if (entries.size() == limit) {
+                more = true;
+                break;
+            }
+            entries.add(entry);
+        }
+        // newer pages are read oldest first so the seek stays next to the cursor
+        if (cursor != null && !cursor.older()) {
+            Collections.reverse(entries);
+            return new Page(entries, true, more);
+        }
+        return new Page(entries, more, cursor != null);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Gets every record from the oldest to the newest, used when writing snapshots.
+     * @return the records of the log.
+     */
+    public List<ViolationRecord> records() {
+        return bySequence.values()
+                .stream()
+                .map(Entry::record)
+                .toList();
+    }
+
+    private NavigableMap<Key, Entry> index(Scope scope) {
+        return switch (scope) {
+            case USER -> byUser;
+            case CHANNEL -> byChannel;
+            case GUILD -> byGuild;
+        };
+    }
+
+    public enum Scope {
+        USER, CHANNEL, GUILD
+    }
+
+    /**
+     * A record of the log.
+     * @param sequence the position of the record in the log, unique.
+     * @param record the violation.
+     */
+    public record Entry(long sequence, ViolationRecord record) {
+
+        public Cursor cursor(boolean older) {
+            return new Cursor(record.timeInMillis(), sequence, older);
+        }
+    }
+
+    /**
+     * A position in an index.
+     * @param time the time of the entry the page starts after.
+     * @param sequence the sequence of the entry the page starts after.
+     * @param older {@code true} to page to older entries, {@code false} to newer ones.
+     */
+    public record Cursor(long time, long sequence, boolean older) { }
+
+    /**
+     * A page of entries.
+     * @param entries the entries, newest first.
+     * @param hasOlder if there are older entries.
+     * @param hasNewer if there are newer entries.
+     */
+    public record Page(List<Entry> entries, boolean hasOlder, boolean hasNewer) { }
+
+    private record Key(long guildId, long subject, long time, long sequence) implements Comparable<Key> {
+
+        static Key of(Scope scope, Entry entry) {
+            final var record = entry.record();
+            final var subject = switch (scope) {
+                case USER -> record.userId();
+                case CHANNEL -> record.channelId();
+                case GUILD -> 0L;
+            };
+            return new Key(record.guildId(), subject, record.timeInMillis(), entry.sequence());
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            var compared = Long.compare(guildId, other.guildId);
+            if (compared == 0) compared = Long.compare(subject, other.subject);
+            if (compared == 0) compared = Long.compare(time, other.time);
+            if (compared == 0) compared = Long.compare(sequence, other.sequence);
+            return compared;
+        }
+    }
+}
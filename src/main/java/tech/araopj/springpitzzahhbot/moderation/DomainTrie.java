@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import java.util.*;
+
+/**
+ * Set of blocked domains, looked up by walking the labels of a host from right to left.
+ * <p>
+ * Blocking a domain also blocks every subdomain of it, so {@code example.com} blocks
+ * {@code login.example.com} but not {@code notexample.com}. Each edge of the trie is a single entry in an
+ * open addressing table keyed by the parent node and the hash of the label, so a lookup costs one hash
+ * probe per label of the host and does not allocate. A match is compared with the blocked domain before
+ * it is reported, so hash collisions never block a harmless host. Instances are immutable.
+ */
+public final class DomainTrie {
+
+    private static final DomainTrie EMPTY = compile(List.of());
+
+    private final long[] keys;
+    private final int[] children;
+    private final String[] blocked;
+    private final int mask;
+    private final int size;
+
+    private DomainTrie(long[] keys, int[] children, String[] blocked, int size) {
+        this.keys = keys;
+        this.children = children;
+        this.blocked = blocked;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Gets a trie that blocks nothing.
+     * @return the shared empty trie.
+     */
+    public static DomainTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles blocklist entries into a trie.
+     * Entries may be plain domains, wildcards like {@code *.example.com} or lines of a hosts file like
+     * {@code 0.0.0.0 example.com}. Anything after a {@code #} is a comment, blank and invalid entries are ignored.
+     * @param entries the blocklist entries.
+     * @return a new {@code DomainTrie}.
+     */
+    public static DomainTrie compile(Collection<String> entries) {
+        final var domains = new LinkedHashSet<String>();
+        var labels = 0;
+        for (var entry : entries) {
+            var domain = parse(entry);
+            if (domain != null && domains.add(domain)) labels += domain.split("\\.").length;
+        }
+
+        final var capacity = Integer.highestOneBit(Math.max(labels, 1) * 2 - 1) << 1;
+        final var keys = new long[capacity];
+        final var children = new int[capacity];
+        final var blocked = new String[labels + 1];
+        var nodes = 1;
+        for (var domain : domains) {
+            var node = 0;
+            var end = domain.length();
+            while (end > 0) {
+                var start = domain.lastIndexOf('.', end - 1) + 1;
+                var key = key(node, domain, start, end);
+                var slot = slot(key, capacity - 1);
+                while (keys[slot] != 0 && keys[slot] != key) slot = (slot + 1) & (capacity - 1);
+                if (keys[slot] == 0) {
+                    keys[slot] = key;
+                    children[slot] = nodes++;
+                }
+                node = children[slot];
+                end = start - 1;
+            }
+            // a shorter blocked domain already covers this one
+            if (blocked[node] == null || blocked[node].length() > domain.length()) blocked[node] = domain;
+        }
+        return new DomainTrie(keys, children, Arrays.copyOf(blocked, nodes), domains.size());
+    }
+
+    private static String parse(String entry) {
+        if (entry == null) return null;
+        var line = entry;
+        var comment = line.indexOf('#');
+        if (comment >= 0) line = line.substring(0, comment);
+        line = line.trim();
+        // hosts files put the address first, the domain is the last column
+        var space = Math.max(line.lastIndexOf(' '), line.lastIndexOf('\t'));
+        if (space >= 0) line = line.substring(space + 1);
+        if (line.startsWith("*.")) line = line.substring(2);
+        else if (line.startsWith(".")) line = line.substring(1);
+        if (line.endsWith(".")) line = line.substring(0, line.length() - 1);
+        line = line.toLowerCase(Locale.ROOT);
+        if (line.indexOf('.') < 0 || line.contains("..")) return null;
+        for (int i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '.' && c != '_') return null;
+        }
+        return line;
+    }
+
+    /**
+     * Finds the blocked domain that covers a host.
+     * @param text the text that contains the host, compared ignoring ASCII case.
+     * @param from the index of the first character of the host, inclusive.
+     * @param to the index after the last character of the host, exclusive.
+     * @return the blocked domain, or {@code null} if the host is not blocked.
+     */
+    public String blockedBy(CharSequence text, int from, int to) {
+        var node = 0;
+        var end = to;
+        while (end > from) {
+            var start = end - 1;
+            while (start >= from && text.charAt(start) != '.') start--;
+            start++;
+            var key = key(node, text, start, end);
+            var slot = slot(key, mask);
+            while (keys[slot] != key) {
+                if (keys[slot] == 0) return null;
+                slot = (slot + 1) & mask;
+            }
+            node = children[slot];
+            var domain = blocked[node];
+            if (domain != null && matches(domain, text, start, to)) return domain;
+            end = start - 1;
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a host is blocked.
+     * @param host the host to check.
+     * @return {@code true} if the host or one of its parent domains is blocked.
+     */
+    public boolean isBlocked(String host) {
+        return blockedBy(host, 0, host.length()) != null;
+    }
+
+    /**
+     * The number of distinct domains compiled into this trie.
+     * @return the blocklist size.
+     */
+    public int size() {
+        return size;
+    }
+
+    private static boolean matches(String domain, CharSequence text, int from, int to) {
+        if (to - from != domain.length()) return false;
+        for (int i = 0; i < domain.length(); i++) {
+            if (lower(text.charAt(from + i)) != domain.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c < 0x80 ? c : Character.toLowerCase(c);
+    }
+
+    private static long key(int parent, CharSequence text, int from, int to) {
+        // FNV-1a over the label, mixed with the parent so equal labels under different parents differ
+        var hash = 0xCBF29CE484222325L ^ parent * 0x9E3779B97F4A7C15L;
+        for (int i = from; i < to; i++) hash = (hash ^ lower(text.charAt(i))) * 0x100000001B3L;
+        hash ^= hash >>> 31;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int slot(long key, int mask) {
+        return (int) (key ^ key >>> 32) & mask;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+/**
+ * The fingerprints of the last messages sent in a channel, kept in a fixed size ring buffer.
+ * Checking a message compares it with a bounded number of recent messages once, so it takes constant time.
+ */
+public final class DuplicateWindow {
+
+    private final long[] fingerprints;
+    private final long[] authors;
+    private final long[] times;
+    private final long[] otherAuthors;
+    private int next;
+    private int size;
+    private volatile long lastSeen;
+
+    public DuplicateWindow(int capacity) {
+        this.fingerprints = new long[capacity];
+        this.authors = new long[capacity];
+        this.times = new long[capacity];
+        this.otherAuthors = new long[capacity];
+    }
+
+    /**
+     * Records a message and counts the recent messages it duplicates.
+     * @param fingerprint the {@link SimHash} fingerprint of the message.
+     * @param authorId the id of the author.
+     * @param timeInMillis when the message was sent.
+     * @param sinceInMillis messages sent before this time are not compared.
+     * @param maxDistance the largest fingerprint distance still counted as a duplicate.
+     * @param limits the number of repeats that are too many.
+     * @return what the message is a duplicate of.
+     */
+    public synchronized Duplicate record(long fingerprint, long authorId, long timeInMillis, long sinceInMillis, int maxDistance, Limits limits) {
+        var sameAuthor = 0;
+        var otherAuthorCount = 0;
+        final var enoughAuthors = Math.max(limits.authors() - 1, 0);
+        for (int i = 0; i < size; i++) {
+            if (!matches(i, fingerprint, sinceInMillis, maxDistance)) continue;
+            if (authors[i] == authorId) sameAuthor++;
+            else if (otherAuthorCount < enoughAuthors && !isCounted(authors[i], otherAuthorCount)) {
+                otherAuthors[otherAuthorCount++] = authors[i];
+            }
+        }
+        fingerprints[next] = fingerprint;
+        authors[next] = authorId;
+        times[next] = timeInMillis;
+        next = (next + 1) % fingerprints.length;
+        size = Math.min(size + 1, fingerprints.length);
+        lastSeen = timeInMillis;
+        if (sameAuthor + 1 >= limits.repeats()) return Duplicate.REPEATED;
+        if (otherAuthorCount + 1 >= limits.authors()) return Duplicate.RAID;
+        return Duplicate.NONE;
+    }
+
+    private boolean matches(int index, long fingerprint, long sinceInMillis, int maxDistance) {
+        return times[index] >= sinceInMillis && SimHash.distance(fingerprints[index], fingerprint) <= maxDistance;
+    }
+
+    /**
+     * Checks the distinct authors found so far, there are never more than the author limit.
+     */
+    private boolean isCounted(long authorId, int count) {
+        for (int i = 0; i < count; i++) {
+            if (otherAuthors[i] == authorId) return true;
+        }
+        return false;
+    }
+
+    /**
+     * When the last message of this channel was sent.
+     * @return the time of the last recorded message.
+     */
+    public long lastSeen() {
+        return lastSeen;
+    }
+
+    /**
+     * What a message is a duplicate of.
+     */
+    public enum Duplicate {
+        /** Not a duplicate of enough messages. */
+        NONE,
+        /** The author already sent the same message too many times. */
+        REPEATED,
+        /** Too many different authors sent the same message. */
+        RAID
+    }
+
+    /**
+     * How many duplicates are too many.
+     * @param repeats the number of times one author may send the same message.
+     * @param authors the number of different authors that may send the same message.
+     */
+    public record Limits(int repeats, int authors) { }
+}
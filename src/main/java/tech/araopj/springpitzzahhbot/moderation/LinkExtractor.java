@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+/**
+ * Finds the links in a message in a single left to right pass.
+ * <p>
+ * Links are found with or without a scheme, so {@code https://example.com/path}, {@code example.com} and
+ * {@code discord.gg/invite} are all reported. Each character is looked at a bounded number of times and
+ * nothing is allocated, unlike a regular expression that may backtrack on crafted input.
+ */
+public final class LinkExtractor {
+
+    private LinkExtractor() {
+    }
+
+    /**
+     * Reports every link in a text to the listener.
+     * @param text the text to scan.
+     * @param listener receives each link, returning {@code false} stops the scan.
+     */
+    public static void scan(CharSequence text, LinkListener listener) {
+        final var length = text.length();
+        var i = 0;
+        while (i < length) {
+            while (i < length && isSeparator(text.charAt(i))) i++;
+            var tokenEnd = i;
+            while (tokenEnd < length && !isSeparator(text.charAt(tokenEnd))) tokenEnd++;
+            if (i < tokenEnd && !scanToken(text, i, tokenEnd, listener)) return;
+            i = tokenEnd;
+        }
+    }
+
+    private static boolean scanToken(CharSequence text, int from, int to, LinkListener listener) {
+        var hostStart = from;
+        var scheme = indexOfScheme(text, from, to);
+        if (scheme >= 0) hostStart = scheme + 3;
+        else while (hostStart < to && !Character.isLetterOrDigit(text.charAt(hostStart))) hostStart++;
+
+        // the authority ends at the path, query, fragment or port, user info ends at the last '@'
+        var hostEnd = hostStart;
+        for (int i = hostStart; i < to; i++) {
+            var c = text.charAt(i);
+            if (c == '/' || c == '?' || c == '#' || c == '\\') break;
+            if (c == '@') hostStart = i + 1;
+            hostEnd = i + 1;
+        }
+        var port = hostEnd;
+        for (int i = hostStart; i < hostEnd; i++) {
+            if (text.charAt(i) == ':') {
+                port = i;
+                break;
+            }
+        }
+        hostEnd = port;
+        while (hostEnd > hostStart && isTrailing(text.charAt(hostEnd - 1))) hostEnd--;
+        if (!isHost(text, hostStart, hostEnd)) return true;
+        var linkEnd = to;
+        while (linkEnd > hostEnd && isTrailing(text.charAt(linkEnd - 1))) linkEnd--;
+        return listener.onLink(hostStart, hostEnd, linkEnd);
+    }
+
+    private static int indexOfScheme(CharSequence text, int from, int to) {
+        for (int i = from; i + 2 < to; i++) {
+            if (text.charAt(i) == ':' && text.charAt(i + 1) == '/' && text.charAt(i + 2) == '/') return i;
+        }
+        return -1;
+    }
+
+    private static boolean isHost(CharSequence text, int from, int to) {
+        var lastDot = -1;
+        for (int i = from; i < to; i++) {
+            var c = text.charAt(i);
+            if (c == '.') {
+                if (i == from || i == lastDot + 1) return false;
+                lastDot = i;
+            } else if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        if (lastDot < 0 || to - lastDot - 1 < 2) return false;
+        for (int i = lastDot + 1; i < to; i++) {
+            if (!Character.isLetter(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean isSeparator(char c) {
+        return Character.isWhitespace(c) || c == '<' || c == '>' || c == '(' || c == ')'
+                || c == '[' || c == ']' || c == '"' || c == '\'' || c == '`' || c == '|';
+    }
+
+    private static boolean isTrailing(char c) {
+        return c == '.' || c == ',' || c == '!' || c == '?' || c == ';' || c == ':' || c == '*' || c == '_' || c == '~';
+    }
+
+    /**
+     * Receives the links found by {@link #scan(CharSequence, LinkListener)}.
+     */
+    @FunctionalInterface
+    public interface LinkListener {
+        /**
+         * Called for each link.
+         * @param hostStart the index of the first character of the host, inclusive.
+         * @param hostEnd the index after the last character of the host, exclusive.
+         * @param linkEnd the index after the last character of the link, path included.
+         * @return {@code true} to keep scanning.
+         */
+        boolean onLink(int hostStart, int hostEnd, int linkEnd);
+    }
+}
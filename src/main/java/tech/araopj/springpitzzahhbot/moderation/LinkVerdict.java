@@ -0,0 +1,53 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+/**
+ * The outcome of checking the links of a message.
+ * @param kind what was found.
+ * @param domain the blocked domain or the invite link that was found, {@code null} when allowed.
+ */
+public record LinkVerdict(Kind kind, String domain) {
+
+    public static final LinkVerdict ALLOWED = new LinkVerdict(Kind.ALLOWED, null);
+
+    public boolean isAllowed() {
+        return kind == Kind.ALLOWED;
+    }
+
+    public enum Kind {
+        /**
+         * The message has no link that needs action.
+         */
+        ALLOWED,
+        /**
+         * The message links to a domain on the blocklist.
+         */
+        BLOCKED_DOMAIN,
+        /**
+         * The message contains a Discord invite.
+         */
+        INVITE
+    }
+}
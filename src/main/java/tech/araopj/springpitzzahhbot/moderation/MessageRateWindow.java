@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The times of the last messages of a member, kept in a fixed size ring buffer.
+ * Recording a message only claims a slot and writes to it, so concurrent updates never lock.
+ */
+public final class MessageRateWindow {
+
+    private final AtomicLongArray times;
+    private final AtomicLong cursor = new AtomicLong();
+    private volatile long lastSeen;
+
+    public MessageRateWindow(int capacity) {
+        this.times = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Records a message and checks it against the limits.
+     * @param timeInMillis when the message was sent.
+     * @param limits the limits to check, none may allow more messages than the capacity of this window.
+     * @return {@code true} if the member sent more messages than one of the limits allows.
+     */
+    public boolean record(long timeInMillis, FloodLimit[] limits) {
+        final var index = cursor.getAndIncrement();
+        final var capacity = times.length();
+        times.set((int) (index % capacity), timeInMillis);
+        lastSeen = timeInMillis;
+        for (var limit : limits) {
+            if (index + 1 < limit.messages()) continue;
+            final var oldest = times.get((int) ((index + 1 - limit.messages()) % capacity));
+            if (timeInMillis - oldest < limit.windowInMillis()) return true;
+        }
+        return false;
+    }
+
+    public long lastSeen() {
+        return lastSeen;
+    }
+
+    /**
+     * A limit of messages in a window of time.
+     * @param messages the number of messages that is too many.
+     * @param windowInMillis the window the messages are counted in.
+     */
+    public record FloodLimit(int messages, long windowInMillis) {
+
+        /**
+         * Parses limits written as {@code messages/seconds}, separated by commas.
+         * @param limits the limits, for example {@code 5/5,15/60}.
+         * @return the parsed limits.
+         */
+        public static FloodLimit[] parse(String limits) {
+            final var parts = limits.split(",");
+            final var parsed = new FloodLimit[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                final var limit = parts[i].trim().split("/");
+                if (limit.length != 2) throw new IllegalArgumentException("Flood limit must be messages/seconds: " + parts[i]);
+                parsed[i] = new FloodLimit(Integer.parseInt(limit[0].trim()), Long.parseLong(limit[1].trim()) * 1_000);
+            }
+            return parsed;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToLongFunction;
+import java.util.Spliterators;
+import java.util.Map;
+
+/**
+ * Evicts one of the least recently seen entries of a map without scanning it or keeping an access order.
+ * <p>
+ * The oldest of a small sample of entries is evicted. The sample starts at a random part of the map, found by
+ * splitting the map at random a few times, so the entries iterated first are not evicted more often than the
+ * others and new entries in those buckets are not evicted right after they were added.
+ */
+public final class SampledEviction {
+
+    private static final int SAMPLES = 16;
+
+    private SampledEviction() {
+    }
+
+    /**
+     * Evicts the least recently seen entry of a sample, does nothing if the map is empty.
+     * @param map the map to evict from.
+     * @param lastSeen when an entry was seen last.
+     */
+    public static <K, V> void evictLeastRecentlySeen(Map<K, V> map, ToLongFunction<? super V> lastSeen) {
+        final var random = ThreadLocalRandom.current();
+        var part = map.entrySet().spliterator();
+        // every split halves what is left, so the sample starts anywhere in the map after a few of them
+        while (part.estimateSize() > 2 * SAMPLES) {
+            final var prefix = part.trySplit();
+            if (prefix == null) break;
+            if (random.nextBoolean()) part = prefix;
+        }
+        var sample = Spliterators.iterator(part);
+        // the part picked may have no entries left, the start of the map is sampled then
+        if (!sample.hasNext()) sample = map.entrySet().iterator();
+        K leastRecentlySeen = null;
+        var oldest = Long.MAX_VALUE;
+        for (int sampled = 0; sampled < SAMPLES && sample.hasNext(); sampled++) {
+            final var entry = sample.next();
+            final var seen = lastSeen.applyAsLong(entry.getValue());
+            if (leastRecentlySeen == null || seen < oldest) {
+                leastRecentlySeen = entry.getKey();
+                oldest = seen;
+            }
+        }
+        if (leastRecentlySeen != null) map.remove(leastRecentlySeen);
+    }
+}
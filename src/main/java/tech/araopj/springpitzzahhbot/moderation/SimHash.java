@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+/**
+ * Computes 64-bit SimHash fingerprints of texts.
+ * <p>
+ * Texts that differ in a few characters get fingerprints that differ in a few bits, so near-duplicate
+ * messages are found by comparing the {@link #distance(long, long)} of their fingerprints.
+ */
+public final class SimHash {
+
+    private static final int SHINGLE = 4;
+
+    private SimHash() {
+    }
+
+    /**
+     * Computes the fingerprint of the letters and digits of a text, ignoring everything else.
+     * @param text the normalized text.
+     * @return the fingerprint.
+     */
+    public static long fingerprint(CharSequence text) {
+        final var weights = new int[Long.SIZE];
+        var shingle = 0L;
+        var count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final var c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) continue;
+            shingle = (shingle << 16) | c;
+            if (++count < SHINGLE) continue;
+            final var hash = mix(shingle);
+            for (int bit = 0; bit < Long.SIZE; bit++) weights[bit] += (hash >>> bit & 1) == 1 ? 1 : -1;
+        }
+        if (count > 0 && count < SHINGLE) return mix(shingle);
+        var fingerprint = 0L;
+        for (int bit = 0; bit < Long.SIZE; bit++) if (weights[bit] > 0) fingerprint |= 1L << bit;
+        return fingerprint;
+    }
+
+    /**
+     * Counts the letters and digits of a text, the characters a fingerprint is computed from.
+     * @param text the normalized text.
+     * @return the number of letters and digits.
+     */
+    public static int significantLength(CharSequence text) {
+        var count = 0;
+        for (int i = 0; i < text.length(); i++) if (Character.isLetterOrDigit(text.charAt(i))) count++;
+        return count;
+    }
+
+    /**
+     * The number of bits two fingerprints differ in.
+     * @param first a fingerprint.
+     * @param second another fingerprint.
+     * @return {@code 0} for identical texts, small values for near-duplicates.
+     */
+    public static int distance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        return value ^ value >>> 33;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * Folds the tricks used to get past the swear word filter before a message is scanned.
+ * <p>
+ * Every character goes through a single precomputed table that lower cases it, replaces look-alike
+ * letters (Cyrillic, Greek, full width and accented Latin) with their plain ASCII letter, maps common
+ * leetspeak digits and symbols to letters and drops invisible characters. The result is written into a
+ * buffer owned by the calling thread, so normalizing a message does not allocate.
+ */
+public final class TextNormalizer {
+
+    private static final char DROP = '\uFFFF';
+    private static final char[] TABLE = new char[Character.MAX_VALUE + 1];
+    private static final ThreadLocal<NormalizedText> BUFFERS = ThreadLocal.withInitial(NormalizedText::new);
+    private static final int FINGERPRINT;
+
+    static {
+        for (int c = 0; c < TABLE.length; c++) TABLE[c] = Character.toLowerCase((char) c);
+
+        // accented latin letters fold to their base letter
+        for (char c = '\u00C0'; c <= '\u024F'; c++) {
+            var base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+            if (base < 0x80 && Character.isLetter(base)) TABLE[c] = Character.toLowerCase(base);
+        }
+        // cyrillic and greek look-alikes, as pairs of confusable and replacement
+        map("аaАaвbВbеeЕeёeЁeкkКkмmМm" +
+            "нhНhоoОoрpРpсcСcтtТtуyУy" +
+            "хxХxіiІiїiјjЈjѕsЅsԁdһhӏl");
+        map("αaΑaβbΒbεeΕeΖzΗhιiΙiκkΚk" +
+            "ΜmνvΝnοoΟoρpΡpτtΤtυuΥyχxΧx");
+        // leetspeak
+        map("0o1i3e4a5s7t8b@a$s");
+        // full width forms used to dodge ascii matching
+        for (char c = '\uFF01'; c <= '\uFF5E'; c++) TABLE[c] = TABLE[c - 0xFEE0];
+
+        drop('\u00AD');
+        drop('\u034F');
+        drop('\u180E');
+        drop('\uFEFF');
+        for (char c = '\u0300'; c <= '\u036F'; c++) drop(c);
+        for (char c = '\u200B'; c <= '\u200F'; c++) drop(c);
+        for (char c = '\u202A'; c <= '\u202E'; c++) drop(c);
+        for (char c = '\u2060'; c <= '\u2064'; c++) drop(c);
+        for (char c = '\uFE00'; c <= '\uFE0F'; c++) drop(c);
+
+        FINGERPRINT = Arrays.hashCode(TABLE);
+    }
+
+    private TextNormalizer() {
+    }
+
+    private static void map(String pairs) {
+        for (int i = 0; i + 1 < pairs.length(); i += 2) TABLE[pairs.charAt(i)] = pairs.charAt(i + 1);
+    }
+
+    private static void drop(char c) {
+        TABLE[c] = DROP;
+    }
+
+    /**
+     * Identifies the folding table, words normalized with a different table must be normalized again.
+     * It also changes when the JDK's case mapping or decompositions change.
+     * @return a hash of the folding table.
+     */
+    public static int fingerprint() {
+        return FINGERPRINT;
+    }
+
+    /**
+     * Normalizes a text into the calling thread's buffer.
+     * The returned buffer is reused by the next call on the same thread, so it must not be kept
+     * or handed to another thread.
+     * @param text the raw text.
+     * @return the normalized text, mapped back to the raw text by {@link NormalizedText#originalIndex(int)}.
+     */
+    public static NormalizedText normalize(CharSequence text) {
+        final var buffer = BUFFERS.get();
+        buffer.fill(text);
+        return buffer;
+    }
+
+    /**
+     * Normalizes a text into a new {@code String}, used when compiling dictionaries.
+     * @param text the raw text.
+     * @return the normalized text.
+     */
+    public static String normalizeToString(CharSequence text) {
+        return normalize(text).toString();
+    }
+
+    /**
+     * A normalized text with the index of every character in the text it came from.
+     */
+    public static final class NormalizedText implements CharSequence {
+
+        private char[] chars = new char[2048];
+        private int[] offsets = new int[2048];
+        private int length;
+
+        private NormalizedText() {
+        }
+
+        private void fill(CharSequence text) {
+            final var size = text.length();
+            if (size > chars.length) {
+                chars = new char[size];
+                offsets = new int[size];
+            }
+            var count = 0;
+            for (int i = 0; i < size; i++) {
+                var folded = TABLE[text.charAt(i)];
+                if (folded == DROP) continue;
+                chars[count] = folded;
+                offsets[count++] = i;
+            }
+            length = count;
+        }
+
+        /**
+         * Gets the index in the raw text of a normalized character.
+         * @param index the index in this text.
+         * @return the index in the raw text.
+         */
+        public int originalIndex(int index) {
+            return offsets[index];
+        }
+
+        /**
+         * Gets the exclusive end in the raw text of a normalized range.
+         * @param end the exclusive end in this text.
+         * @return the exclusive end in the raw text.
+         */
+        public int originalEnd(int end) {
+            return end == 0 ? 0 : offsets[end - 1] + 1;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
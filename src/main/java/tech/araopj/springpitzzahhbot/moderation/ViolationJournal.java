@@ -0,0 +1,398 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileChannel;
+import java.nio.MappedByteBuffer;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.io.*;
+
+/**
+ * Durable, append-only log of violations, so moderation state survives restarts.
+ * <p>
+ * Violations are written as fixed-size binary records into memory-mapped segment files. Appending is a
+ * handful of writes to the mapped memory, the operating system writes the pages to disk and
+ * {@link #flush()} forces them out in batches. A record is only valid once its checksum, written last,
+ * matches its content, so a record torn by a crash is ignored. The next segment is created and mapped in
+ * the background while the current one fills up, so switching segments is a swap of the buffer. A full
+ * segment is forced to disk in the background too. {@link #snapshot(SnapshotCapture)} starts a new
+ * segment, captures the state as of that point and writes it to a snapshot file with a checksum. Once the
+ * snapshot was read back intact, the snapshots and segments before the previous snapshot are deleted, so
+ * a snapshot that turns out unreadable can fall back to the previous one without losing records. On boot
+ * the latest intact snapshot is restored and the segments after it are replayed.
+ * <p>
+ * Appends from different threads run concurrently, each one reserves its own slot in the segment.
+ * Snapshots and segment switches wait for the appends in progress, so the work done together with an
+ * append is always on the same side of a snapshot as its record. Only the capture of the state runs
+ * while appends wait, the snapshot file is written after they resume.
+ */
+@Slf4j
+public final class ViolationJournal implements Closeable {
+
+    public static final int RECORD_SIZE = 48;
+    private static final int RECORD_MARKER = 0x564A524E;
+    private static final int SNAPSHOT_MAGIC = 0x56534E50;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicInteger position = new AtomicInteger();
+    private final ExecutorService background = Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable, "journal-preallocator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Path directory;
+    private final int segmentSize;
+    private volatile MappedByteBuffer segment;
+    private CompletableFuture<MappedByteBuffer> nextSegment;
+    private volatile boolean dirty;
+    private long sequence;
+
+    private ViolationJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Opens the journal in a directory, restoring the latest snapshot and replaying the records after it.
+     * @param directory the directory of the journal, created if it does not exist.
+     * @param recordsPerSegment how many records fit in one segment file.
+     * @param replayer receives the snapshot and the records to replay.
+     * @return the journal, ready to append to.
+     * @throws IOException if the journal cannot be read, the segment cannot be mapped or an intact snapshot
+     *                     cannot be restored.
+     */
+    public static ViolationJournal open(Path directory, int recordsPerSegment, Replayer replayer) throws IOException {
+        Files.createDirectories(directory);
+        final var journal = new ViolationJournal(directory, recordsPerSegment * RECORD_SIZE);
+        final var snapshots = list(directory, "snapshot-", ".bin");
+        var start = 0L;
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            final var path = journal.snapshotPath(snapshots.get(i));
+            final var content = readSnapshot(path);
+            if (content == null) continue;
+            try {
+                replayer.restore(new DataInputStream(new ByteArrayInputStream(content)));
+            } catch (IOException e) {
+                // the content is intact, so an older snapshot would only be restored on top of part of this one
+                throw new IOException("Moderation snapshot " + path + " is intact but cannot be restored", e);
+            }
+            start = snapshots.get(i);
+            break;
+        }
+        var last = start;
+        var end = 0;
+        for (var sequence : list(directory, "segment-", ".log")) {
+            if (sequence < start) continue;
+            last = sequence;
+            end = replay(journal.segmentPath(sequence), replayer);
+        }
+        journal.sequence = last;
+        journal.segment = journal.map(last);
+        journal.position.set(end);
+        journal.prepareNextSegment();
+        log.info("Opened moderation journal {} at segment {}", directory, last);
+        return journal;
+    }
+
+    /**
+     * Appends a record and runs the work that goes with it, such as updating the in-memory state.
+     * @param record the record to append.
+     * @param apply runs after the record is written, on the same side of any snapshot as the record.
+     */
+    public void append(ViolationRecord record, Runnable apply) {
+        while (true) {
+            final MappedByteBuffer buffer;
+            lock.readLock().lock();
+            try {
+                buffer = segment;
+                final var offset = position.getAndAdd(RECORD_SIZE);
+                if (offset >= 0 && offset + RECORD_SIZE <= buffer.capacity()) {
+                    write(buffer, offset, record);
+                    dirty = true;
+                    apply.run();
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                if (segment == buffer) roll();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot start a new journal segment", e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Forces the records appended since the last flush to disk.
+     */
+    public void flush() {
+        if (!dirty) return;
+        dirty = false;
+        segment.force();
+    }
+
+    /**
+     * Writes a snapshot of the state and deletes what the snapshot before it made redundant.
+     * @param capture copies the state while no appends run and returns what writes the copy, which runs after
+     *                appends resume.
+     * @throws IOException if the snapshot cannot be written, the journal stays usable.
+     */
+    public void snapshot(SnapshotCapture capture) throws IOException {
+        final long snapshot;
+        final SnapshotWriter writer;
+        lock.writeLock().lock();
+        try {
+            roll();
+            snapshot = sequence;
+            writer = capture.capture();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        final var content = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(content)) {
+            writer.write(out);
+        }
+        final var checksum = new CRC32();
+        checksum.update(content.toByteArray());
+        final var file = ByteBuffer.allocate(content.size() + 8);
+        file.putInt(SNAPSHOT_MAGIC).put(content.toByteArray()).putInt((int) checksum.getValue()).flip();
+        final var path = snapshotPath(snapshot);
+        final var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            while (file.hasRemaining()) channel.write(file);
+            channel.force(true);
+        }
+        Files.move(temporary, path, REPLACE_EXISTING, ATOMIC_MOVE);
+        if (readSnapshot(path) == null) throw new IOException("Moderation snapshot " + path + " cannot be read back");
+        // the previous snapshot and the segments since it stay, in case this one cannot be read on boot
+        final var previous = list(directory, "snapshot-", ".bin").stream()
+                .filter(sequence -> sequence < snapshot)
+                .reduce((first, second) -> second);
+        if (previous.isEmpty()) return;
+        for (var sequence : list(directory, "segment-", ".log")) {
+            if (sequence < previous.get()) Files.deleteIfExists(segmentPath(sequence));
+        }
+        for (var sequence : list(directory, "snapshot-", ".bin")) {
+            if (sequence < previous.get()) Files.deleteIfExists(snapshotPath(sequence));
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            background.shutdown();
+            segment.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Switches to the next segment, which was mapped in the background unless the segment filled up faster.
+     */
+    private void roll() throws IOException {
+        final var full = segment;
+        MappedByteBuffer next;
+        try {
+            next = nextSegment.join();
+        } catch (CompletionException e) {
+            log.warn("Cannot prepare journal segment {} in the background, mapping it now", sequence + 1, e.getCause());
+            next = map(sequence + 1);
+        }
+        segment = next;
+        sequence++;
+        position.set(0);
+        background.execute(full::force);
+        prepareNextSegment();
+    }
+
+    private void prepareNextSegment() {
+        final var next = sequence + 1;
+        nextSegment = CompletableFuture.supplyAsync(() -> {
+            try {
+                final var buffer = map(next);
+                // fault the pages in now instead of on the first appends
+                buffer.load();
+                return buffer;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, background);
+    }
+
+    private MappedByteBuffer map(long sequence) throws IOException {
+        try (var channel = FileChannel.open(segmentPath(sequence), CREATE, READ, WRITE)) {
+            return channel.map(MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("segment-%016d.log", sequence));
+    }
+
+    private Path snapshotPath(long sequence) {
+        return directory.resolve(String.format("snapshot-%016d.bin", sequence));
+    }
+
+    private static List<Long> list(Path directory, String prefix, String suffix) throws IOException {
+        final var sequences = new ArrayList<Long>();
+        try (var files = Files.list(directory)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                var name = file.getFileName().toString();
+                if (!name.startsWith(prefix) || !name.endsWith(suffix)) continue;
+                try {
+                    sequences.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException ignored) {
+                    // not a file of the journal
+                }
+            }
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    /**
+     * Reads a snapshot and checks it completely before any of it is restored.
+     * @param snapshot the snapshot file.
+     * @return the state written by the {@link SnapshotWriter}, or {@code null} if the file is unreadable, torn or corrupt.
+     */
+    private static byte[] readSnapshot(Path snapshot) {
+        try {
+            final var file = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+            if (file.remaining() < 8 || file.getInt() != SNAPSHOT_MAGIC) throw new IOException("Not a moderation snapshot");
+            final var content = new byte[file.remaining() - 4];
+            file.get(content);
+            final var checksum = new CRC32();
+            checksum.update(content);
+            if (file.getInt() != (int) checksum.getValue()) throw new IOException("Checksum mismatch");
+            return content;
+        } catch (IOException e) {
+            log.error("Cannot read moderation snapshot {}, trying an older one", snapshot, e);
+            return null;
+        }
+    }
+
+    private static int replay(Path segment, Replayer replayer) throws IOException {
+        try (var channel = FileChannel.open(segment, READ)) {
+            final var buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            var offset = 0;
+            while (offset + RECORD_SIZE <= buffer.capacity()) {
+                final var record = read(buffer, offset);
+                if (record == null) break;
+                replayer.replay(record);
+                offset += RECORD_SIZE;
+            }
+            return offset;
+        }
+    }
+
+    private static void write(MappedByteBuffer buffer, int offset, ViolationRecord record) {
+        // absolute writes only, so concurrent appends to different slots do not interfere
+        buffer.putLong(offset, record.timeInMillis());
+        buffer.putLong(offset + 8, record.guildId());
+        buffer.putLong(offset + 16, record.userId());
+        buffer.putLong(offset + 24, record.channelId());
+        buffer.putDouble(offset + 32, record.weight());
+        buffer.putInt(offset + 40, record.reason().ordinal());
+        buffer.putInt(offset + 44, checksum(buffer, offset));
+    }
+
+    private static ViolationRecord read(MappedByteBuffer buffer, int offset) {
+        if (buffer.getInt(offset + 44) != checksum(buffer, offset)) return null;
+        final var reason = ViolationReason.of(buffer.getInt(offset + 40));
+        if (reason == null) return null;
+        return new ViolationRecord(
+                buffer.getLong(offset),
+                buffer.getLong(offset + 8),
+                buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24),
+                reason,
+                buffer.getDouble(offset + 32)
+        );
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int offset) {
+        var hash = (long) RECORD_MARKER;
+        for (int i = 0; i < 40; i += 8) hash = (hash ^ buffer.getLong(offset + i)) * 0x100000001B3L;
+        hash = (hash ^ buffer.getInt(offset + 40)) * 0x100000001B3L;
+        final var checksum = (int) (hash ^ hash >>> 32);
+        // an all zero slot is never valid
+        return checksum == 0 ? RECORD_MARKER : checksum;
+    }
+
+    /**
+     * Rebuilds the state when the journal is opened.
+     */
+    public interface Replayer {
+        /**
+         * Restores the state written by a {@link SnapshotWriter}.
+         * @param in the snapshot, after its header.
+         * @throws IOException if the snapshot cannot be read.
+         */
+        void restore(DataInputStream in) throws IOException;
+
+        /**
+         * Applies a record appended after the snapshot.
+         * @param record the record, in the order it was appended.
+         */
+        void replay(ViolationRecord record);
+    }
+
+    /**
+     * Copies the state for a snapshot, appends wait while it runs so it should only copy memory.
+     */
+    @FunctionalInterface
+    public interface SnapshotCapture {
+        SnapshotWriter capture() throws IOException;
+    }
+
+    /**
+     * Writes the state copied by a {@link SnapshotCapture} into a snapshot.
+     */
+    @FunctionalInterface
+    public interface SnapshotWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
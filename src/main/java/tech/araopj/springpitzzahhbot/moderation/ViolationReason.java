@@ -0,0 +1,53 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Why a member got a violation.
+ * The ordinal is stored in the moderation journal, so new reasons must be added at the end.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ViolationReason {
+    FLOOD("Slow Down"),
+    DUPLICATE("Duplicate Message"),
+    BLOCKED_LINK("Blocked Link"),
+    INVITE("Invite Link"),
+    BAD_WORD("Bad Word Detected"),
+    /**
+     * Not a violation, marks that the member was timed out and the score started over.
+     */
+    TIMED_OUT("Violated Three Times");
+
+    private static final ViolationReason[] VALUES = values();
+
+    private final String title;
+
+    public static ViolationReason of(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import java.time.Duration;
+
+/**
+ * Violation scores of members, keyed by guild id and user id, that decay exponentially over time.
+ * <p>
+ * Each score is stored as the value it had when it was last updated and the time of that update, and
+ * is decayed when it is read, so nothing has to touch the scores as time passes. Scores that decayed to
+ * almost nothing are removed by {@link #purge(double, long)}.
+ * <p>
+ * The scores are spread over a fixed number of stripes chosen by the hash of the key. Each stripe is an
+ * open addressing table of primitive arrays guarded by its own lock, so updates to different members
+ * rarely contend, a lookup costs one hash probe and nothing is boxed.
+ */
+public final class ViolationScores {
+
+    private final Stripe[] stripes;
+    private final double decayPerMilli;
+
+    /**
+     * Creates empty scores.
+     * @param concurrency the expected number of threads that update the scores at the same time.
+     * @param halfLife how long it takes for a score to decay to half of its value.
+     */
+    public ViolationScores(int concurrency, Duration halfLife) {
+        final var count = Integer.highestOneBit(Math.max(concurrency, 1) * 4 - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) stripes[i] = new Stripe();
+        this.decayPerMilli = Math.log(2) / Math.max(halfLife.toMillis(), 1);
+    }
+
+    /**
+     * Adds to the score of a member.
+     * @param guildId the id of the guild.
+     * @param userId the id of the user.
+     * @param weight how much to add.
+     * @param timeInMillis the time of the violation.
+     * @return the decayed score of the member, this violation included.
+     */
+    public double add(long guildId, long userId, double weight, long timeInMillis) {
+        final var hash = hash(guildId, userId);
+        return stripe(hash).add(guildId, userId, hash, weight, timeInMillis, this);
+    }
+
+    /**
+     * Adds to the score of a member and removes the score when it reaches the limit,
+     * so two concurrent violations never both report the limit.
+     * @param guildId the id of the guild.
+     * @param userId the id of the user.
+     * @param weight how much to add.
+     * @param limit the score that resets the member.
+     * @param timeInMillis the time of the violation.
+     * @return {@code true} if this violation reached the limit.
+     */
+    public boolean addAndReset(long guildId, long userId, double weight, double limit, long timeInMillis) {
+        final var hash = hash(guildId, userId);
+        final var stripe = stripe(hash);
+        synchronized (stripe) {
+            if (stripe.add(guildId, userId, hash, weight, timeInMillis, this) < limit) return false;
+            stripe.remove(guildId, userId, hash);
+            return true;
+        }
+    }
+
+    /**
+     * Gets the score of a member.
+     * @param guildId the id of the guild.
+     * @param userId the id of the user.
+     * @param timeInMillis the time to decay the score to.
+     * @return the decayed score, {@code 0} if the member has none.
+     */
+    public double get(long guildId, long userId, long timeInMillis) {
+        final var hash = hash(guildId, userId);
+        return stripe(hash).get(guildId, userId, hash, timeInMillis, this);
+    }
+
+    /**
+     * Removes the score of a member.
+     * @param guildId the id of the guild.
+     * @param userId the id of the user.
+     */
+    public void remove(long guildId, long userId) {
+        final var hash = hash(guildId, userId);
+        stripe(hash).remove(guildId, userId, hash);
+    }
+
+    /**
+     * Sets the score of a member as it was at a given time, used when restoring a snapshot.
+     * @param guildId the id of the guild.
+     * @param userId the id of the user.
+     * @param score the score at the time of the last update.
+     * @param updatedAt the time of the last update.
+     */
+    public void put(long guildId, long userId, double score, long updatedAt) {
+        final var hash = hash(guildId, userId);
+        stripe(hash).put(guildId, userId, hash, score, updatedAt);
+    }
+
+    /**
+     * Visits every score as it was last updated, one stripe at a time.
+     * Each stripe is locked while it is visited, so the visitor must not touch these scores.
+     * @param visitor receives each score.
+     */
+    public void forEach(ScoreVisitor visitor) {
+        for (var stripe : stripes) stripe.forEach(visitor);
+    }
+
+    /**
+     * Removes every score that decayed below a threshold, one stripe at a time.
+     * @param epsilon the smallest score worth keeping.
+     * @param timeInMillis the time to decay the scores to.
+     * @return the number of removed scores.
+     */
+    public int purge(double epsilon, long timeInMillis) {
+        var purged = 0;
+        for (var stripe : stripes) purged += stripe.purge(epsilon, timeInMillis, this);
+        return purged;
+    }
+
+    /**
+     * The number of members with a score.
+     * @return the number of tracked members.
+     */
+    public int size() {
+        var size = 0;
+        for (var stripe : stripes) size += stripe.size();
+        return size;
+    }
+
+    private double decay(double score, long updatedAt, long timeInMillis) {
+        final var elapsed = timeInMillis - updatedAt;
+        return elapsed <= 0 ? score : score * Math.exp(-decayPerMilli * elapsed);
+    }
+
+    private Stripe stripe(int hash) {
+        // the low bits pick the slot inside the stripe, the high bits pick the stripe
+        return stripes[(hash >>> 24) & (stripes.length - 1)];
+    }
+
+    private static int hash(long guildId, long userId) {
+        var hash = guildId * 0x9E3779B97F4A7C15L + userId;
+        hash = (hash ^ hash >>> 32) * 0xD6E8FEB86659FD93L;
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    private static final class Stripe {
+
+        private static final int MIN_CAPACITY = 16;
+
+        // user ids are never 0, so 0 marks an empty slot
+        private long[] guildIds = new long[MIN_CAPACITY];
+        private long[] userIds = new long[MIN_CAPACITY];
+        private double[] scores = new double[MIN_CAPACITY];
+        private long[] updatedAt = new long[MIN_CAPACITY];
+        private int size;
+
+        synchronized double add(long guildId, long userId, int hash, double weight, long timeInMillis, ViolationScores owner) {
+            var slot = find(guildId, userId, hash);
+            if (userIds[slot] == 0) {
+                if ((size + 1) * 2 > userIds.length) {
+                    resize(userIds.length * 2);
+                    slot = find(guildId, userId, hash);
+                }
+                guildIds[slot] = guildId;
+                userIds[slot] = userId;
+                size++;
+            }
+            final var score = owner.decay(scores[slot], updatedAt[slot], timeInMillis) + weight;
+            scores[slot] = score;
+            updatedAt[slot] = Math.max(updatedAt[slot], timeInMillis);
+            return score;
+        }
+
+        synchronized void put(long guildId, long userId, int hash, double score, long timeInMillis) {
+            var slot = find(guildId, userId, hash);
+            if (userIds[slot] == 0) {
+                if ((size + 1) * 2 > userIds.length) {
+                    resize(userIds.length * 2);
+                    slot = find(guildId, userId, hash);
+                }
+                guildIds[slot] = guildId;
+                userIds[slot] = userId;
+                size++;
+            }
+            scores[slot] = score;
+            updatedAt[slot] = timeInMillis;
+        }
+
+        synchronized void forEach(ScoreVisitor visitor) {
+            for (int i = 0; i < userIds.length; i++) {
+                if (userIds[i] != 0) visitor.visit(guildIds[i], userIds[i], scores[i], updatedAt[i]);
+            }
+        }
+
+        synchronized double get(long guildId, long userId, int hash, long timeInMillis, ViolationScores owner) {
+            final var slot = find(guildId, userId, hash);
+            return userIds[slot] == 0 ? 0 : owner.decay(scores[slot], updatedAt[slot], timeInMillis);
+        }
+
+        synchronized void remove(long guildId, long userId, int hash) {
+            var slot = find(guildId, userId, hash);
+            if (userIds[slot] == 0) return;
+            final var mask = userIds.length - 1;
+            // shift the following entries back so no probe sequence is broken by the hole
+            var hole = slot;
+            for (var next = (slot + 1) & mask; userIds[next] != 0; next = (next + 1) & mask) {
+                var home = hash(guildIds[next], userIds[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    guildIds[hole] = guildIds[next];
+                    userIds[hole] = userIds[next];
+                    scores[hole] = scores[next];
+                    updatedAt[hole] = updatedAt[next];
+                    hole = next;
+                }
+            }
+            guildIds[hole] = 0;
+            userIds[hole] = 0;
+            scores[hole] = 0;
+            updatedAt[hole] = 0;
+            size--;
+        }
+
+        synchronized int purge(double epsilon, long timeInMillis, ViolationScores owner) {
+            var live = 0;
+            for (int i = 0; i < userIds.length; i++) {
+                if (userIds[i] == 0) continue;
+                if (owner.decay(scores[i], updatedAt[i], timeInMillis) < epsilon) userIds[i] = 0;
+                else live++;
+            }
+            final var purged = size - live;
+            // rebuilding also shrinks the table after a burst of violations has decayed
+            var capacity = MIN_CAPACITY;
+            while (live * 2 > capacity) capacity *= 2;
+            resize(capacity);
+            size = live;
+            return purged;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private int find(long guildId, long userId, int hash) {
+            final var mask = userIds.length - 1;
+            var slot = hash & mask;
+            while (userIds[slot] != 0 && (userIds[slot] != userId || guildIds[slot] != guildId)) slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        private void resize(int capacity) {
+            final var oldGuildIds = guildIds;
+            final var oldUserIds = userIds;
+            final var oldScores = scores;
+            final var oldUpdatedAt = updatedAt;
+            guildIds = new long[capacity];
+            userIds = new long[capacity];
+            scores = new double[capacity];
+            updatedAt = new long[capacity];
+            for (int i = 0; i < oldUserIds.length; i++) {
+                if (oldUserIds[i] == 0) continue;
+                var slot = find(oldGuildIds[i], oldUserIds[i], hash(oldGuildIds[i], oldUserIds[i]));
+                guildIds[slot] = oldGuildIds[i];
+                userIds[slot] = oldUserIds[i];
+                scores[slot] = oldScores[i];
+                updatedAt[slot] = oldUpdatedAt[i];
+            }
+        }
+    }
+
+    /**
+     * Receives the scores of {@link #forEach(ScoreVisitor)}.
+     */
+    @FunctionalInterface
+    public interface ScoreVisitor {
+        void visit(long guildId, long userId, double score, long updatedAt);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import java.nio.file.ClosedWatchServiceException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.nio.file.WatchService;
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.io.Closeable;
+import java.nio.file.Path;
+
+/**
+ * Calls a loader whenever a local file changes.
+ * <p>
+ * Loads run one at a time on a background thread of their own, and changes that arrive in quick
+ * succession are collapsed into a single load. Loaders are expected to build their result completely
+ * and publish it with one reference swap, so readers never wait for a load and never see half of one.
+ */
+@Slf4j
+public final class WatchedFile implements Closeable {
+
+    private final Path path;
+    private final long reloadDelayInMillis;
+    private final Runnable loader;
+    private final String name;
+    private final ScheduledExecutorService worker;
+    private volatile ScheduledFuture<?> pendingReload;
+    private volatile WatchService watchService;
+
+    /**
+     * Creates a watched file, nothing is watched until {@link #watch()} is called.
+     * @param name the name used for the threads and in the logs.
+     * @param path the file to watch.
+     * @param reloadDelayInMillis how long to wait for more changes before loading.
+     * @param loader loads the file and publishes the result.
+     */
+    public WatchedFile(String name, Path path, long reloadDelayInMillis, Runnable loader) {
+        this.name = name;
+        this.path = path.toAbsolutePath();
+        this.reloadDelayInMillis = reloadDelayInMillis;
+        this.loader = loader;
+        this.worker = Executors.newSingleThreadScheduledExecutor(daemon(name + "-loader"));
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Runs a task on the thread that loads the file, after any load already scheduled.
+     * @param task the task to run.
+     */
+    public void execute(Runnable task) {
+        worker.execute(task);
+    }
+
+    /**
+     * Schedules a load of the file, without blocking the caller.
+     */
+    public void reload() {
+        final var previous = pendingReload;
+        if (previous != null) previous.cancel(false);
+        pendingReload = worker.schedule(loader, reloadDelayInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts watching the file, every change to it schedules a {@link #reload()}.
+     */
+    public void watch() {
+        try {
+            watchService = path.getFileSystem().newWatchService();
+            path.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.error("Cannot watch {} file {}, changes will need a restart", name, path, e);
+            return;
+        }
+        daemon(name + "-watcher").newThread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    final var key = watchService.take();
+                    final var changed = key.pollEvents()
+                            .stream()
+                            .anyMatch(event -> path.getFileName().equals(event.context()));
+                    if (changed) reload();
+                    if (!key.reset()) break;
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                log.info("Stopped watching {} file {}", name, path);
+            }
+        }).start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        worker.shutdownNow();
+        if (watchService != null) watchService.close();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            final var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A guild's own changes to the shared swear word list.
+ * <p>
+ * Denied words are compiled into a small automaton of their own and allowed words are skipped when
+ * they come out of the shared list, so the shared automaton is never copied or recompiled for a guild.
+ * Instances are immutable, every change returns a new overlay that only recompiles the overlay words.
+ */
+public final class WordOverlay {
+
+    private static final WordOverlay EMPTY = new WordOverlay(Set.of(), Set.of());
+
+    private final Set<String> denied;
+    private final Set<String> allowed;
+    private final AhoCorasick deniedMatcher;
+
+    private WordOverlay(Set<String> denied, Set<String> allowed) {
+        this.denied = Set.copyOf(denied);
+        this.allowed = Set.copyOf(allowed);
+        this.deniedMatcher = denied.isEmpty() ? AhoCorasick.empty() : AhoCorasick.compile(this.denied);
+    }
+
+    /**
+     * Gets the overlay of a guild that has not changed anything.
+     * @return the empty overlay.
+     */
+    public static WordOverlay empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates the overlay of a guild from saved words.
+     * @param denied the normalized words checked in this guild only.
+     * @param allowed the normalized words of the shared list not checked in this guild.
+     * @return the overlay, compiled once.
+     */
+    public static WordOverlay of(Set<String> denied, Set<String> allowed) {
+        return denied.isEmpty() && allowed.isEmpty() ? EMPTY : new WordOverlay(denied, allowed);
+    }
+
+    /**
+     * Adds a word that is checked in this guild only.
+     * @param word the normalized word.
+     * @return the updated overlay.
+     */
+    public WordOverlay deny(String word) {
+        final var updatedDenied = new HashSet<>(denied);
+        final var updatedAllowed = new HashSet<>(allowed);
+        updatedDenied.add(word);
+        updatedAllowed.remove(word);
+        return new WordOverlay(updatedDenied, updatedAllowed);
+    }
+
+    /**
+     * Adds a word of the shared list that is not checked in this guild.
+     * @param word the normalized word.
+     * @return the updated overlay.
+     */
+    public WordOverlay allow(String word) {
+        final var updatedDenied = new HashSet<>(denied);
+        final var updatedAllowed = new HashSet<>(allowed);
+        updatedDenied.remove(word);
+        updatedAllowed.add(word);
+        return new WordOverlay(updatedDenied, updatedAllowed);
+    }
+
+    /**
+     * Removes a word from both the denied and the allowed words.
+     * @param word the normalized word.
+     * @return the updated overlay.
+     */
+    public WordOverlay remove(String word) {
+        final var updatedDenied = new HashSet<>(denied);
+        final var updatedAllowed = new HashSet<>(allowed);
+        updatedDenied.remove(word);
+        updatedAllowed.remove(word);
+        return new WordOverlay(updatedDenied, updatedAllowed);
+    }
+
+    public boolean isAllowed(String word) {
+        return allowed.contains(word);
+    }
+
+    public AhoCorasick deniedMatcher() {
+        return deniedMatcher;
+    }
+
+    public Set<String> denied() {
+        return denied;
+    }
+
+    public Set<String> allowed() {
+        return allowed;
+    }
+
+    public boolean isEmpty() {
+        return denied.isEmpty() && allowed.isEmpty();
+    }
+}
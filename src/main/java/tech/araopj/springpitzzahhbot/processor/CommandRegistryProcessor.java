@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.processor;
+
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.AbstractProcessor;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.Element;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.SourceVersion;
+import javax.tools.Diagnostic;
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.TreeMap;
+import java.util.Locale;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates {@code GeneratedCommandRegistry}, the list of every {@code @BotChatCommand} and {@code @BotSlashCommand}.
+ * <p>
+ * The registry is a configuration with a {@code @Bean} method per command that calls its constructor, so the commands
+ * are neither found by classpath scanning nor created through reflective constructor lookup at startup. It also lists
+ * the command types, which {@code DevBot} adds to the managers. The processor works on names only, so it is compiled
+ * before the rest of the bot, see the {@code compile-processor} execution in the pom.
+ */
+@SupportedAnnotationTypes({CommandRegistryProcessor.CHAT_COMMAND, CommandRegistryProcessor.SLASH_COMMAND})
+public class CommandRegistryProcessor extends AbstractProcessor {
+
+    static final String CHAT_COMMAND = "tech.araopj.springpitzzahhbot.commands.chat_commands.BotChatCommand";
+    static final String SLASH_COMMAND = "tech.araopj.springpitzzahhbot.commands.slash_commands.BotSlashCommand";
+    private static final String CHAT_COMMAND_TYPE = "tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommand";
+    private static final String SLASH_COMMAND_TYPE = "tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand";
+    private static final String PACKAGE = "tech.araopj.springpitzzahhbot.commands";
+    private static final String REGISTRY = "GeneratedCommandRegistry";
+
+    // sorted by name, so the registry does not change with the order javac visits the sources in
+    private final Map<String, Command> chatCommands = new TreeMap<>();
+    private final Map<String, Command> slashCommands = new TreeMap<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+    private boolean generated;
+    private boolean failed;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (var annotation : annotations) {
+            final var name = annotation.getQualifiedName().toString();
+            final var commands = name.equals(CHAT_COMMAND) ? chatCommands : slashCommands;
+            final var type = name.equals(CHAT_COMMAND) ? CHAT_COMMAND_TYPE : SLASH_COMMAND_TYPE;
+            for (var element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (generated) {
+                    error(element, "@%s cannot mark a generated class, the registry was written already", annotation.getSimpleName());
+                    continue;
+                }
+                final var command = command(element, annotation, type);
+                if (command != null) {
+                    commands.put(command.type(), command);
+                    originatingElements.add(element);
+                }
+            }
+        }
+        // commands are written by hand, so the first round sees all of them. An empty registry would replace
+        // the real one if the processor ran on sources without commands.
+        if (!generated && !failed && !originatingElements.isEmpty()) {
+            generated = true;
+            write();
+        }
+        return true;
+    }
+
+    private Command command(Element element, TypeElement annotation, String type) {
+        final var annotationName = "@" + annotation.getSimpleName();
+        if (!(element instanceof TypeElement typeElement)
+                || element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD) {
+            error(element, "%s can only mark classes", annotationName);
+            return null;
+        }
+        final var modifiers = element.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)
+                || typeElement.getNestingKind().isNested() && !modifiers.contains(Modifier.STATIC)) {
+            error(element, "%s must mark a public, concrete, top level or static class", annotationName);
+            return null;
+        }
+        final var types = processingEnv.getTypeUtils();
+        final var commandType = processingEnv.getElementUtils().getTypeElement(type);
+        if (commandType != null && !types.isAssignable(types.erasure(element.asType()), types.erasure(commandType.asType()))) {
+            error(element, "%s must mark a %s", annotationName, commandType.getSimpleName());
+            return null;
+        }
+        final var constructor = constructor(typeElement);
+        if (constructor == null) {
+            error(element, "%s must mark a class with a single public constructor", annotationName);
+            return null;
+        }
+        final var parameters = constructor.getParameters()
+                .stream()
+                .map(parameter -> new Parameter(
+                        parameter.getAnnotationMirrors().stream().map(Object::toString).toList(),
+                        parameter.asType().toString(),
+                        parameter.getSimpleName().toString()
+                ))
+                .toList();
+        final var simpleName = typeElement.getSimpleName().toString();
+        final var methodName = simpleName.substring(0, 1).toLowerCase(Locale.ROOT).concat(simpleName.substring(1));
+        return new Command(typeElement.getQualifiedName().toString(), methodName, beanName(typeElement, annotation, methodName), parameters);
+    }
+
+    private static ExecutableElement constructor(TypeElement element) {
+        final var constructors = ElementFilter.constructorsIn(element.getEnclosedElements())
+                .stream()
+                .filter(constructor -> constructor.getModifiers().contains(Modifier.PUBLIC))
+                .toList();
+        return constructors.size() == 1 ? constructors.get(0) : null;
+    }
+
+    private static String beanName(TypeElement element, TypeElement annotation, String defaultName) {
+        for (var mirror : element.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().asElement().equals(annotation)) continue;
+            for (var value : mirror.getElementValues().entrySet()) {
+                if (value.getKey().getSimpleName().contentEquals("value") && !value.getValue().getValue().toString().isEmpty()) {
+                    return value.getValue().getValue().toString();
+                }
+            }
+        }
+        // the name @Component gave the command
+        return defaultName;
+    }
+
+    private void write() {
+        try {
+            final var file = processingEnv.getFiler().createSourceFile(PACKAGE + "." + REGISTRY, originatingElements.toArray(Element[]::new));
+            try (var out = new PrintWriter(file.openWriter())) {
+                out.println("package " + PACKAGE + ";");
+                out.println();
+                out.println("/**");
+                out.println(" * Every chat_command and slash command of the bot, generated from @BotChatCommand and @BotSlashCommand.");
+                out.println(" */");
+                out.println("@javax.annotation.processing.Generated(\"" + CommandRegistryProcessor.class.getName() + "\")");
+                out.println("@org.springframework.context.annotation.Configuration(proxyBeanMethods = false)");
+                out.println("public class " + REGISTRY + " {");
+                out.println();
+                writeTypes(out, "CHAT_COMMANDS", CHAT_COMMAND_TYPE, chatCommands);
+                writeTypes(out, "SLASH_COMMANDS", SLASH_COMMAND_TYPE, slashCommands);
+                chatCommands.values().forEach(command -> writeBean(out, command));
+                slashCommands.values().forEach(command -> writeBean(out, command));
+                out.println("}");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + REGISTRY, e);
+        }
+    }
+
+    private static void writeTypes(PrintWriter out, String constant, String type, Map<String, Command> commands) {
+        out.println("    public static final java.util.List<Class<? extends " + type + ">> " + constant + " = java.util.List.of(");
+        final var lines = commands.keySet().stream().map(name -> "            " + name + ".class").toList();
+        out.println(String.join(",\n", lines));
+        out.println("    );");
+        out.println();
+    }
+
+    private static void writeBean(PrintWriter out, Command command) {
+        out.println("    @org.springframework.context.annotation.Bean(\"" + command.beanName() + "\")");
+        final var parameters = command.parameters()
+                .stream()
+                .map(parameter -> String.join(" ", parameter.annotations()) + (parameter.annotations().isEmpty() ? "" : " ")
+                        + parameter.type() + " " + parameter.name())
+                .toList();
+        out.println("    public " + command.type() + " " + command.methodName() + "(" + String.join(", ", parameters) + ") {");
+        final var arguments = command.parameters().stream().map(Parameter::name).toList();
+        out.println("        return new " + command.type() + "(" + String.join(", ", arguments) + ");");
+        out.println("    }");
+        out.println();
+    }
+
+    private void error(Element element, String format, Object... args) {
+        failed = true;
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element);
+    }
+
+    private record Command(String type, String methodName, String beanName, List<Parameter> parameters) { }
+
+    private record Parameter(List<String> annotations, String type, String name) { }
+}
@@ -0,0 +1,273 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.entities.Guild;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
+import tech.araopj.springpitzzahhbot.commands.CommandsConfig;
+import org.springframework.stereotype.Service;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.security.NoSuchAlgorithmException;
+import net.dv8tion.jda.api.JDA;
+import lombok.extern.slf4j.Slf4j;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.Properties;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HexFormat;
+import java.nio.file.Path;
+import java.util.TreeMap;
+import java.util.List;
+
+/**
+ * Keeps the slash commands registered on Discord in sync with the commands of the bot.
+ * <p>
+ * The desired commands are built once and only rebuilt on {@link #reload()}. Their canonical JSON is hashed,
+ * and the hash of the last set pushed to Discord is saved to a properties file. Commands are only uploaded
+ * when the hash differs or Discord is missing a command, so a restart without changes costs a single request.
+ */
+@Slf4j
+@Service
+public class CommandRegistrationService {
+
+    private static final String GLOBAL = "global";
+    private static final String CLEARED = ".cleared";
+    private static final long SAVE_DELAY_IN_SECONDS = 5;
+
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "command-registrations-saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean savePending = new AtomicBoolean();
+    private final CommandsService commandsService;
+    private final Properties registered = new Properties();
+    private final Path path;
+    private final boolean clearLegacyGuildCommands;
+    private volatile Registration desired;
+
+    public CommandRegistrationService(CommandsService commandsService, CommandsConfig commandsConfig) {
+        this.commandsService = commandsService;
+        this.path = Path.of(commandsConfig.getCommandRegistrationsPath());
+        this.clearLegacyGuildCommands = commandsConfig.isClearLegacyGuildCommands();
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!Files.exists(path)) return;
+        try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            registered.load(reader);
+        } catch (IOException e) {
+            log.error("Cannot load the registered command hashes from {}, commands will be uploaded again", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        saver.shutdownNow();
+        if (savePending.get()) savePending();
+    }
+
+    /**
+     * Rebuilds the desired commands from the slash commands of the bot.
+     * Commands are not pushed until the next sync.
+     * @return the hash of the desired commands.
+     */
+    public synchronized String reload() {
+        final var commandData = commandsService.slashCommands()
+                .values()
+                .stream()
+                .map(SlashCommand::getCommandData)
+                .map(Supplier::get)
+                .toList();
+        desired = new Registration(commandData, hash(commandData));
+        log.info("Built {} slash commands with hash {}", commandData.size(), desired.hash());
+        return desired.hash();
+    }
+
+    /**
+     * Pushes the global commands of the bot if Discord does not have them yet.
+     * @param jda the shard to register the commands with, global commands are shared by every shard.
+     * @return a future that completes with {@code true} if commands were uploaded.
+     */
+    public CompletableFuture<Boolean> syncGlobal(JDA jda) {
+        return sync(GLOBAL, jda.retrieveCommands(), jda::updateCommands);
+    }
+
+    /**
+     * Pushes the commands of the bot to a single guild if it does not have them yet.
+     * Guild commands show up at once, so they are used while developing the bot.
+     * @param guild the guild to register the commands in.
+     * @return a future that completes with {@code true} if commands were uploaded.
+     */
+    public CompletableFuture<Boolean> syncGuild(Guild guild) {
+        return sync(guild.getId(), guild.retrieveCommands(), guild::updateCommands);
+    }
+
+    /**
+     * Removes the guild commands older versions of the bot registered in a guild, once per guild.
+     * <p>
+     * Those versions registered every command in every guild, and Discord shows them next to the global
+     * commands until they are removed. Whether a guild was cleared is saved with the command hashes, so the
+     * commands of a guild are only retrieved the first time it is seen. The guilds cleared within a few seconds
+     * of each other, as on startup, are saved together in the background.
+     * @param guild a guild that uses the global commands.
+     * @return a future that completes with {@code true} if guild commands were removed.
+     */
+    public CompletableFuture<Boolean> clearLegacyGuildCommands(Guild guild) {
+        final var scope = guild.getId() + CLEARED;
+        if (!clearLegacyGuildCommands || registered.containsKey(scope)) return CompletableFuture.completedFuture(false);
+        return guild.retrieveCommands().submit().thenCompose(existing -> {
+            if (existing.isEmpty()) return CompletableFuture.completedFuture(false);
+            return guild.updateCommands().submit().thenApply(ignored -> {
+                log.info("Removed {} legacy guild commands from {}", existing.size(), guild.getId());
+                return true;
+            });
+        }).thenApply(cleared -> {
+            registered.setProperty(scope, "true");
+            if (savePending.compareAndSet(false, true)) saver.schedule(this::savePending, SAVE_DELAY_IN_SECONDS, TimeUnit.SECONDS);
+            return cleared;
+        });
+    }
+
+    private CompletableFuture<Boolean> sync(String scope, RestAction<List<Command>> retrieve, Supplier<CommandListUpdateAction> update) {
+        final var registration = desired();
+        if (!registration.hash().equals(registered.getProperty(scope))) return upload(update, scope, registration);
+        return retrieve.submit().thenCompose(existing -> {
+            final var names = existing.stream().map(Command::getName).sorted().toList();
+            if (!names.equals(registration.names())) return upload(update, scope, registration);
+            log.info("Slash commands of {} are up to date", scope);
+            return CompletableFuture.completedFuture(false);
+        });
+    }
+
+    private Registration desired() {
+        final var registration = desired;
+        if (registration != null) return registration;
+        synchronized (this) {
+            if (desired == null) reload();
+            return desired;
+        }
+    }
+
+    private CompletableFuture<Boolean> upload(Supplier<CommandListUpdateAction> update, String scope, Registration registration) {
+        return update.get().addCommands(registration.commandData()).submit().thenApply(ignored -> {
+            log.info("Uploaded {} slash commands to {}", registration.commandData().size(), scope);
+            save(scope, registration.hash());
+            return true;
+        });
+    }
+
+    private void save(String scope, String hash) {
+        registered.setProperty(scope, hash);
+        save();
+    }
+
+    private void savePending() {
+        savePending.set(false);
+        try {
+            save();
+        } catch (UncheckedIOException e) {
+            log.error("Cannot save the cleared guilds, their commands are checked again on the next start", e);
+        }
+    }
+
+    private synchronized void save() {
+        final var temporary = path.toAbsolutePath().resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (var writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                registered.store(writer, "Hashes of the slash commands last uploaded to Discord");
+            }
+            Files.move(temporary, path, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot save the registered command hashes", e);
+        }
+    }
+
+    /**
+     * Hashes command data independently of the order of the commands and of the keys in their JSON.
+     * @param commandData the commands to hash.
+     * @return the SHA-256 of the canonical JSON, in hex.
+     */
+    static String hash(List<CommandData> commandData) {
+        final var canonical = new TreeMap<String, String>();
+        for (var data : commandData) {
+            final var json = new StringBuilder();
+            canonicalize(JsonParser.parseString(data.toData().toString()), json);
+            canonical.put(data.getName(), json.toString());
+        }
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void canonicalize(JsonElement element, StringBuilder json) {
+        if (element.isJsonObject()) {
+            final var sorted = new TreeMap<String, JsonElement>();
+            element.getAsJsonObject().entrySet().forEach(e -> sorted.put(e.getKey(), e.getValue()));
+            json.append('{');
+            sorted.forEach((key, value) -> {
+                json.append('"').append(key).append("\":");
+                canonicalize(value, json);
+                json.append(',');
+            });
+            json.append('}');
+        } else if (element.isJsonArray()) {
+            // options and choices keep their order, Discord shows them in that order
+            json.append('[');
+            element.getAsJsonArray().forEach(value -> {
+                canonicalize(value, json);
+                json.append(',');
+            });
+            json.append(']');
+        } else json.append(element);
+    }
+
+    private record Registration(List<CommandData> commandData, String hash) {
+
+        List<String> names() {
+            return commandData.stream().map(CommandData::getName).sorted().toList();
+        }
+    }
+}
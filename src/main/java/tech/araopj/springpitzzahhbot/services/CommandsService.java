@@ -3,6 +3,8 @@ package tech.araopj.springpitzzahhbot.services;
 import tech.araopj.springpitzzahhbot.commands.slash_commands.SlashCommand;
 import tech.araopj.springpitzzahhbot.commands.chat_commands.ChatCommand;
 import tech.araopj.springpitzzahhbot.commands.CommandsConfig;
+import tech.araopj.springpitzzahhbot.commands.CommandIndex;
+import java.util.concurrent.atomic.AtomicReference;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +32,10 @@ public record CommandsService(CommandsConfig commandsConfig) {
         return commandsConfig.getChatCommands();
     }
 
+    public AtomicReference<CommandIndex<ChatCommand>> chatCommandIndex() {
+        return commandsConfig.getChatCommandIndex();
+    }
+
     public Map<String, SlashCommand> slashCommands() {
         return commandsConfig.getSlashCommands();
     }
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
+import lombok.extern.slf4j.Slf4j;
+import java.util.Properties;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps settings of guilds in a directory, one properties file per guild.
+ * <p>
+ * A change of one guild only rewrites the file of that guild, under a lock shared with a few other guilds,
+ * so changes of different guilds rarely wait for each other and the cost of a change does not grow with the
+ * number of guilds. Files are replaced atomically, so a crash leaves either the old or the new settings.
+ */
+@Slf4j
+public final class GuildPropertiesStore {
+
+    private static final String SUFFIX = ".properties";
+    private static final int STRIPES = 64;
+
+    private final Object[] locks = new Object[STRIPES];
+    private final Path directory;
+    private final String comment;
+
+    /**
+     * @param directory the directory of the files, created on the first save.
+     * @param comment the comment written at the top of every file.
+     */
+    public GuildPropertiesStore(Path directory, String comment) {
+        this.directory = directory;
+        this.comment = comment;
+        for (int i = 0; i < STRIPES; i++) locks[i] = new Object();
+    }
+
+    /**
+     * Reads the settings of every guild, files that cannot be read are skipped with a warning.
+     * @return the settings by guild id.
+     */
+    public Map<Long, Properties> load() {
+        final var loaded = new HashMap<Long, Properties>();
+        if (!Files.isDirectory(directory)) return loaded;
+        try (var files = Files.list(directory)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                final var name = file.getFileName().toString();
+                if (!name.endsWith(SUFFIX)) continue;
+                final long guildId;
+                try {
+                    guildId = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    log.warn("Skipping {}, its name is not the id of a guild", file);
+                    continue;
+                }
+                final var properties = new Properties();
+                try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                    loaded.put(guildId, properties);
+                } catch (IOException | IllegalArgumentException e) {
+                    log.warn("Skipping {}, it cannot be read", file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Cannot list the guild settings in {}", directory, e);
+        }
+        return loaded;
+    }
+
+    /**
+     * Gets the lock to hold while a change of a guild is saved and published, so changes of a guild are saved
+     * in the order they are published.
+     * @param guildId the id of the guild.
+     * @return the lock, shared with a few other guilds.
+     */
+    public Object lock(long guildId) {
+        return locks[Math.floorMod(Long.hashCode(guildId), STRIPES)];
+    }
+
+    /**
+     * Replaces the settings of a guild.
+     * @param guildId the id of the guild.
+     * @param properties the settings, empty to delete the file of the guild.
+     * @throws UncheckedIOException if the settings cannot be saved, the file of the guild is unchanged then.
+     */
+    public void save(long guildId, Properties properties) {
+        final var path = directory.resolve(guildId + SUFFIX);
+        try {
+            if (properties.isEmpty()) {
+                Files.deleteIfExists(path);
+                return;
+            }
+            Files.createDirectories(directory);
+            final var temporary = directory.resolve(guildId + SUFFIX + ".tmp");
+            try (var writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, comment);
+            }
+            Files.move(temporary, path, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot save the settings of guild " + guildId, e);
+        }
+    }
+}
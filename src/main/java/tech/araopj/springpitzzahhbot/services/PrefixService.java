@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services;
+
+import tech.araopj.springpitzzahhbot.commands.CommandsConfig;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.Properties;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the chat_command prefixes of each guild.
+ * <p>
+ * Guilds that did not choose their own prefixes use the prefix from the configuration. The prefixes of
+ * every guild are kept in a map shared by all shards, so a change is seen by the next message on any
+ * shard, and saved to the properties file of the guild so it survives restarts.
+ */
+@Slf4j
+@Service
+public class PrefixService {
+
+    public static final int MAX_PREFIXES = 5;
+    public static final int MAX_PREFIX_LENGTH = 10;
+    private static final String PREFIXES = "prefixes";
+
+    private final Map<Long, List<String>> guildPrefixes;
+    private final List<String> defaultPrefixes;
+    private final GuildPropertiesStore store;
+
+    public PrefixService(CommandsConfig commandsConfig) {
+        this.guildPrefixes = commandsConfig.getGuildPrefixes();
+        this.defaultPrefixes = List.of(commandsConfig.getPrefix());
+        this.store = new GuildPropertiesStore(Path.of(commandsConfig.getGuildPrefixesDirectory()), "Chat command prefixes of the guild");
+    }
+
+    @PostConstruct
+    public void load() {
+        store.load().forEach((guildId, properties) -> {
+            final var prefixes = properties.getProperty(PREFIXES, "").trim();
+            if (prefixes.isEmpty()) log.warn("Guild {} has no prefixes saved, it uses the default prefix", guildId);
+            else guildPrefixes.put(guildId, sorted(List.of(prefixes.split("\\s+"))));
+        });
+        log.info("Loaded the prefixes of {} guilds", guildPrefixes.size());
+    }
+
+    /**
+     * Gets the prefixes of a guild, longest first so a prefix never hides a longer one it starts.
+     * @param guildId the id of the guild.
+     * @return the prefixes of the guild.
+     */
+    public List<String> getPrefixes(long guildId) {
+        return guildPrefixes.getOrDefault(guildId, defaultPrefixes);
+    }
+
+    /**
+     * Gets the prefix of a guild to show in usage messages.
+     * @param guildId the id of the guild.
+     * @return the shortest prefix of the guild, which is the easiest to type.
+     */
+    public String getPrefix(long guildId) {
+        final var prefixes = guildPrefixes.get(guildId);
+        return prefixes == null ? defaultPrefixes.get(0) : prefixes.get(prefixes.size() - 1);
+    }
+
+    /**
+     * Replaces the prefixes of a guild.
+     * @param guildId the id of the guild.
+     * @param prefixes the new prefixes, without whitespace.
+     * @throws IllegalArgumentException if there are no prefixes, too many or one of them is invalid.
+     * @throws UncheckedIOException if the prefixes cannot be saved, the guild keeps its prefixes then.
+     */
+    public void setPrefixes(long guildId, List<String> prefixes) {
+        if (prefixes.isEmpty() || prefixes.size() > MAX_PREFIXES) {
+            throw new IllegalArgumentException(String.format("Choose between 1 and %d prefixes", MAX_PREFIXES));
+        }
+        for (var prefix : prefixes) {
+            if (prefix.isEmpty() || prefix.length() > MAX_PREFIX_LENGTH || prefix.chars().anyMatch(Character::isWhitespace)) {
+                throw new IllegalArgumentException(String.format("Prefixes must be 1 to %d characters without spaces", MAX_PREFIX_LENGTH));
+            }
+        }
+        final var updated = sorted(prefixes);
+        final var properties = new Properties();
+        properties.setProperty(PREFIXES, String.join(" ", updated));
+        synchronized (store.lock(guildId)) {
+            store.save(guildId, properties);
+            guildPrefixes.put(guildId, updated);
+        }
+    }
+
+    /**
+     * Makes a guild use the default prefix again.
+     * @param guildId the id of the guild.
+     * @throws UncheckedIOException if the prefixes cannot be saved, the guild keeps its prefixes then.
+     */
+    public void resetPrefixes(long guildId) {
+        synchronized (store.lock(guildId)) {
+            if (!guildPrefixes.containsKey(guildId)) return;
+            store.save(guildId, new Properties());
+            guildPrefixes.remove(guildId);
+        }
+    }
+
+    private static List<String> sorted(List<String> prefixes) {
+        // stable, so prefixes of the same length keep the order they were given in
+        return prefixes.stream()
+                .distinct()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toList();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services.configs;
+
+import tech.araopj.springpitzzahhbot.configs.DeletionConfig;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import java.util.concurrent.ScheduledExecutorService;
+import net.dv8tion.jda.api.entities.TextChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Service;
+import net.dv8tion.jda.api.utils.TimeUtil;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deletes flagged messages in batches instead of one REST call each.
+ * <p>
+ * Deletions that become due in the same channel within a short window are collected and sent as bulk
+ * deletes of up to 100 messages. Discord only bulk deletes messages younger than two weeks, so older
+ * messages, lone messages and messages outside text channels are deleted one by one.
+ */
+@Slf4j
+@Service
+public class DeletionCoalescerService {
+
+    private static final int MAX_BULK_SIZE = 100;
+    // a little under two weeks, so a message does not age past the limit while the request is in flight
+    private static final Duration MAX_BULK_AGE = Duration.ofDays(14).minusMinutes(5);
+
+    private final Map<Long, PendingDeletions> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "deletion-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long windowInMillis;
+
+    public DeletionCoalescerService(DeletionConfig deletionConfig) {
+        this.windowInMillis = deletionConfig.getWindowInMillis();
+    }
+
+    /**
+     * Deletes a message after a delay, together with the other messages of the channel that are due around the same time.
+     * @param channel the channel the message was sent in.
+     * @param messageId the id of the message to delete.
+     * @param delay how long to wait before the message is deleted.
+     * @param unit the unit of the delay.
+     */
+    public void delete(MessageChannel channel, long messageId, long delay, TimeUnit unit) {
+        scheduler.schedule(() -> enqueue(channel, messageId), delay, unit);
+    }
+
+    private void enqueue(MessageChannel channel, long messageId) {
+        pending.compute(channel.getIdLong(), (id, deletions) -> {
+            if (deletions == null) {
+                deletions = new PendingDeletions(channel, new ArrayList<>());
+                scheduler.schedule(() -> flush(id), windowInMillis, TimeUnit.MILLISECONDS);
+            }
+            deletions.messageIds().add(messageId);
+            return deletions;
+        });
+    }
+
+    private void flush(long channelId) {
+        final var deletions = pending.remove(channelId);
+        if (deletions == null) return;
+        final var channel = deletions.channel();
+        final var cutoff = OffsetDateTime.now().minus(MAX_BULK_AGE);
+        final var bulk = new ArrayList<String>(deletions.messageIds().size());
+        final var single = new ArrayList<Long>();
+        for (var messageId : deletions.messageIds()) {
+            if (channel instanceof TextChannel && TimeUtil.getTimeCreated(messageId).isAfter(cutoff)) bulk.add(Long.toUnsignedString(messageId));
+            else single.add(messageId);
+        }
+        for (int from = 0; from < bulk.size(); from += MAX_BULK_SIZE) {
+            final var batch = bulk.subList(from, Math.min(from + MAX_BULK_SIZE, bulk.size()));
+            if (batch.size() == 1) {
+                single.add(Long.parseUnsignedLong(batch.get(0)));
+                continue;
+            }
+            ((TextChannel) channel).deleteMessagesByIds(List.copyOf(batch))
+                    .queue(null, e -> log.warn("Cannot bulk delete {} messages in {}", batch.size(), channel.getName(), e));
+        }
+        for (var messageId : single) {
+            channel.deleteMessageById(messageId)
+                    .queue(null, e -> log.warn("Cannot delete message {} in {}", messageId, channel.getName(), e));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * The messages of a channel waiting for the next flush.
+     * @param channel the channel the messages were sent in.
+     * @param messageIds the ids of the messages, only changed while holding the map entry.
+     */
+    private record PendingDeletions(MessageChannel channel, List<Long> messageIds) { }
+}
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services.configs;
+
+import tech.araopj.springpitzzahhbot.configs.ModerationConfig;
+import tech.araopj.springpitzzahhbot.configs.DictionaryConfig;
+import tech.araopj.springpitzzahhbot.moderation.TextNormalizer;
+import tech.araopj.springpitzzahhbot.moderation.AhoCorasick;
+import tech.araopj.springpitzzahhbot.moderation.WatchedFile;
+import static java.nio.file.StandardCopyOption.*;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.MessageDigest;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import com.google.common.io.Resources;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.io.*;
+import java.nio.file.*;
+import java.net.URI;
+
+/**
+ * Keeps the swear word matcher in sync with a local word list.
+ * <p>
+ * The list is a text file with one word per line, lines starting with {@code #} are comments. Every
+ * compiled list is also written next to it as a {@code .bin} file. Its header holds the binary format
+ * version, the normalizer fingerprint and the hash of the text file, and it is only loaded instead of
+ * compiling the text file when all three match. Changes to the text file are compiled in the background
+ * and published with a single swap of the matcher reference, so message threads never wait for a reload
+ * and never see a partially built list.
+ */
+@Slf4j
+@Service
+public class DictionaryService {
+
+    /**
+     * The version of the {@code .bin} layout, bump it when the header or {@link AhoCorasick#writeTo} changes.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private final ModerationConfig moderationConfig;
+    private final DictionaryConfig dictionaryConfig;
+    private final WatchedFile watchedFile;
+
+    public DictionaryService(DictionaryConfig dictionaryConfig, ModerationConfig moderationConfig) {
+        this.dictionaryConfig = dictionaryConfig;
+        this.moderationConfig = moderationConfig;
+        this.watchedFile = new WatchedFile(
+                "dictionary",
+                Path.of(dictionaryConfig.getPath()),
+                dictionaryConfig.getReloadDelayInMillis(),
+                () -> load(source())
+        );
+    }
+
+    @PostConstruct
+    public void start() {
+        final var source = source();
+        if (Files.exists(source)) load(source);
+        else if (!dictionaryConfig.getSeedUrl().isBlank()) watchedFile.execute(() -> seed(source));
+        else log.warn("Swear word list {} does not exist, messages will not be checked", source);
+        watchedFile.watch();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        watchedFile.close();
+    }
+
+    /**
+     * Compiles the word list again and publishes it, without blocking the caller.
+     */
+    public void reload() {
+        watchedFile.reload();
+    }
+
+    private Path source() {
+        return watchedFile.path();
+    }
+
+    private Path binary(Path source) {
+        return source.resolveSibling(source.getFileName() + ".bin");
+    }
+
+    private void load(Path source) {
+        final var binary = binary(source);
+        try {
+            final var content = Files.readAllBytes(source);
+            final var header = header(content);
+            var matcher = readBinary(binary, header);
+            if (matcher == null) {
+                matcher = compile(content);
+                writeBinary(matcher, binary, header);
+            }
+            moderationConfig.swearWordMatcher().set(matcher);
+            log.info("Loaded {} swear words from {}", matcher.size(), source);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Cannot load swear word list {}, keeping the current one", source, e);
+        }
+    }
+
+    /**
+     * Identifies what a compiled list was built from: the binary format, the normalizer and the text file.
+     * @param content the bytes of the text file.
+     * @return the header expected at the start of the {@code .bin} file.
+     */
+    private static byte[] header(byte[] content) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return ByteBuffer.allocate(8 + digest.length)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(TextNormalizer.fingerprint())
+                    .put(digest)
+                    .array();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads a compiled list if it was built from the same text file with the same normalizer and format.
+     * @return the compiled list, or {@code null} if it must be compiled again.
+     */
+    private AhoCorasick readBinary(Path binary, byte[] header) {
+        if (!Files.exists(binary)) return null;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(binary)))) {
+            final var found = new byte[header.length];
+            in.readFully(found);
+            if (!Arrays.equals(found, header)) {
+                log.info("Compiled swear word list {} is out of date, compiling it again", binary);
+                return null;
+            }
+            return AhoCorasick.readFrom(in);
+        } catch (IOException e) {
+            log.warn("Cannot read compiled swear word list {}, compiling it again", binary, e);
+            return null;
+        }
+    }
+
+    private AhoCorasick compile(byte[] content) {
+        return AhoCorasick.compile(new String(content, StandardCharsets.UTF_8)
+                .lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(TextNormalizer::normalizeToString)
+                .toList());
+    }
+
+    private void writeBinary(AhoCorasick matcher, Path binary, byte[] header) throws IOException {
+        final var temporary = binary.resolveSibling(binary.getFileName() + ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.write(header);
+            matcher.writeTo(out);
+        }
+        Files.move(temporary, binary, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    /**
+     * Downloads the default word list once when there is no local copy yet.
+     * @param source where the list is stored.
+     */
+    private void seed(Path source) {
+        try {
+            log.info("Swear word list {} does not exist, downloading it from {}", source, dictionaryConfig.getSeedUrl());
+            final var lines = Resources.readLines(URI.create(dictionaryConfig.getSeedUrl()).toURL(), StandardCharsets.UTF_8);
+            final var temporary = source.resolveSibling(source.getFileName() + ".tmp");
+            Files.write(temporary, lines, StandardCharsets.UTF_8);
+            Files.move(temporary, source, REPLACE_EXISTING, ATOMIC_MOVE);
+            load(source);
+        } catch (IOException e) {
+            log.error("Cannot download the swear word list", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services.configs;
+
+import tech.araopj.springpitzzahhbot.moderation.DuplicateWindow.Duplicate;
+import tech.araopj.springpitzzahhbot.moderation.DuplicateWindow.Limits;
+import tech.araopj.springpitzzahhbot.moderation.DuplicateWindow;
+import tech.araopj.springpitzzahhbot.moderation.SampledEviction;
+import tech.araopj.springpitzzahhbot.moderation.TextNormalizer;
+import tech.araopj.springpitzzahhbot.configs.DuplicateConfig;
+import tech.araopj.springpitzzahhbot.moderation.SimHash;
+import org.springframework.stereotype.Service;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
+
+/**
+ * Detects messages that repeat recent messages of the same channel, exactly or nearly.
+ * <p>
+ * Each channel keeps the {@link SimHash} fingerprints of its last messages, and only the window of the
+ * channel is locked while a message is checked. Once the configured maximum of channels is reached, the
+ * least recently active of a random sample of channels is dropped.
+ */
+@Service
+public class DuplicateDetectorService {
+
+    private final DuplicateConfig duplicateConfig;
+    private final Limits limits;
+    private final Map<Long, DuplicateWindow> windows = new ConcurrentHashMap<>();
+
+    public DuplicateDetectorService(DuplicateConfig duplicateConfig) {
+        this.duplicateConfig = duplicateConfig;
+        this.limits = new Limits(duplicateConfig.getMaxRepeats(), duplicateConfig.getMaxAuthors());
+    }
+
+    /**
+     * Records a message and checks whether it repeats recent messages of its channel.
+     * Messages that are too short to tell apart are not checked.
+     * @param channelId the id of the channel the message was sent in.
+     * @param authorId the id of the author.
+     * @param rawMessage the message.
+     * @param timeInMillis when the message was sent.
+     * @return what the message is a duplicate of.
+     */
+    public Duplicate check(long channelId, long authorId, String rawMessage, long timeInMillis) {
+        final var text = TextNormalizer.normalize(rawMessage);
+        if (SimHash.significantLength(text) < duplicateConfig.getMinLength()) return Duplicate.NONE;
+        final var fingerprint = SimHash.fingerprint(text);
+        var window = windows.get(channelId);
+        if (window == null) {
+            if (windows.size() >= duplicateConfig.getMaxChannels()) SampledEviction.evictLeastRecentlySeen(windows, DuplicateWindow::lastSeen);
+            window = windows.computeIfAbsent(channelId, id -> new DuplicateWindow(duplicateConfig.getMessagesPerChannel()));
+        }
+        return window.record(
+                fingerprint,
+                authorId,
+                timeInMillis,
+                timeInMillis - duplicateConfig.getWindowInSeconds() * 1_000,
+                duplicateConfig.getMaxDistance(),
+                limits
+        );
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services.configs;
+
+import tech.araopj.springpitzzahhbot.moderation.MessageRateWindow.FloodLimit;
+import tech.araopj.springpitzzahhbot.moderation.MessageRateWindow;
+import tech.araopj.springpitzzahhbot.moderation.SampledEviction;
+import tech.araopj.springpitzzahhbot.moderation.MemberKey;
+import tech.araopj.springpitzzahhbot.configs.FloodConfig;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Service;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Detects members that send too many messages in a short time.
+ * <p>
+ * Each member gets a {@link MessageRateWindow} sized for the largest configured limit. Members that
+ * have not sent anything for longer than the largest window are evicted by a background sweep. When the
+ * configured maximum is reached anyway, as during a raid of new accounts, the least recently seen of a
+ * random sample of members is evicted to make room, so every member is checked and memory stays bounded.
+ */
+@Slf4j
+@Service
+public class FloodDetectorService {
+
+    private final Map<MemberKey, MessageRateWindow> windows = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "flood-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final FloodLimit[] limits;
+    private final int capacity;
+    private final long idleInMillis;
+    private final int maxTrackedMembers;
+
+    public FloodDetectorService(FloodConfig floodConfig) {
+        this.limits = FloodLimit.parse(floodConfig.getLimits());
+        this.capacity = Arrays.stream(limits).mapToInt(FloodLimit::messages).max().orElse(1);
+        this.idleInMillis = Arrays.stream(limits).mapToLong(FloodLimit::windowInMillis).max().orElse(0);
+        this.maxTrackedMembers = floodConfig.getMaxTrackedMembers();
+        sweeper.scheduleWithFixedDelay(this::sweep, idleInMillis, idleInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Records a message and checks whether its author is flooding the chat.
+     * @param guildId the id of the guild the message was sent in.
+     * @param userId the id of the author.
+     * @param timeInMillis when the message was sent.
+     * @return {@code true} if the author sent more messages than a configured limit allows.
+     */
+    public boolean isFlooding(long guildId, long userId, long timeInMillis) {
+        final var key = new MemberKey(guildId, userId);
+        var window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= maxTrackedMembers) evictLeastRecentlySeen();
+            window = windows.computeIfAbsent(key, k -> new MessageRateWindow(capacity));
+        }
+        return window.record(timeInMillis, limits);
+    }
+
+    /**
+     * Makes room for a new member without scanning every window, the background sweep catches up on the rest.
+     */
+    private void evictLeastRecentlySeen() {
+        if (sweeping.compareAndSet(false, true)) sweeper.execute(this::sweep);
+        SampledEviction.evictLeastRecentlySeen(windows, MessageRateWindow::lastSeen);
+    }
+
+    private void sweep() {
+        try {
+            final var idleSince = System.currentTimeMillis() - idleInMillis;
+            final var before = windows.size();
+            windows.values().removeIf(window -> window.lastSeen() < idleSince);
+            log.debug("Evicted {} idle members from flood detection", before - windows.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services.configs;
+
+import tech.araopj.springpitzzahhbot.configs.ModerationConfig;
+import tech.araopj.springpitzzahhbot.moderation.LinkExtractor;
+import tech.araopj.springpitzzahhbot.moderation.LinkVerdict;
+import tech.araopj.springpitzzahhbot.moderation.WatchedFile;
+import tech.araopj.springpitzzahhbot.moderation.DomainTrie;
+import tech.araopj.springpitzzahhbot.configs.LinkConfig;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Checks the links of a message against a local domain blocklist and for Discord invites.
+ * <p>
+ * The blocklist is a text file with one domain per line, hosts files work as-is. It is reloaded the same
+ * way as the swear word list: changes are compiled in the background and published with a single swap.
+ */
+@Slf4j
+@Service
+public class LinkCheckerService {
+
+    private final ModerationConfig moderationConfig;
+    private final LinkConfig linkConfig;
+    private final WatchedFile watchedFile;
+
+    public LinkCheckerService(LinkConfig linkConfig, ModerationConfig moderationConfig) {
+        this.linkConfig = linkConfig;
+        this.moderationConfig = moderationConfig;
+        this.watchedFile = new WatchedFile(
+                "blocklist",
+                Path.of(linkConfig.getBlocklistPath()),
+                linkConfig.getReloadDelayInMillis(),
+                this::load
+        );
+    }
+
+    @PostConstruct
+    public void start() {
+        if (Files.exists(watchedFile.path())) load();
+        else log.info("Domain blocklist {} does not exist, only invites will be checked", watchedFile.path());
+        watchedFile.watch();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        watchedFile.close();
+    }
+
+    /**
+     * Compiles the blocklist again and publishes it, without blocking the caller.
+     */
+    public void reload() {
+        watchedFile.reload();
+    }
+
+    /**
+     * Checks every link in a message, stopping at the first one that needs action.
+     * @param rawMessage the message to check.
+     * @return the verdict of the first blocked link or invite, {@link LinkVerdict#ALLOWED} otherwise.
+     */
+    public LinkVerdict check(String rawMessage) {
+        final var blocklist = moderationConfig.blockedDomains().get();
+        final var verdict = new LinkVerdict[] { LinkVerdict.ALLOWED };
+        LinkExtractor.scan(rawMessage, (hostStart, hostEnd, linkEnd) -> {
+            if (linkConfig.isBlockInvites() && isInvite(rawMessage, hostStart, hostEnd, linkEnd)) {
+                verdict[0] = new LinkVerdict(LinkVerdict.Kind.INVITE, rawMessage.substring(hostStart, linkEnd));
+                return false;
+            }
+            final var domain = blocklist.blockedBy(rawMessage, hostStart, hostEnd);
+            if (domain != null) verdict[0] = new LinkVerdict(LinkVerdict.Kind.BLOCKED_DOMAIN, domain);
+            return domain == null;
+        });
+        return verdict[0];
+    }
+
+    private static boolean isInvite(String text, int hostStart, int hostEnd, int linkEnd) {
+        var host = hostStart;
+        if (text.regionMatches(true, host, "www.", 0, 4)) host += 4;
+        if (isHost(text, host, hostEnd, "discord.gg")) return linkEnd > hostEnd + 1;
+        if (isHost(text, host, hostEnd, "discord.com") || isHost(text, host, hostEnd, "discordapp.com")) {
+            return text.regionMatches(true, hostEnd, "/invite/", 0, 8) && linkEnd > hostEnd + 8;
+        }
+        return false;
+    }
+
+    private static boolean isHost(String text, int from, int to, String host) {
+        return to - from == host.length() && text.regionMatches(true, from, host, 0, host.length());
+    }
+
+    private void load() {
+        final var source = watchedFile.path();
+        try (var lines = Files.lines(source, StandardCharsets.UTF_8)) {
+            final var blocklist = DomainTrie.compile(lines.toList());
+            moderationConfig.blockedDomains().set(blocklist);
+            log.info("Loaded {} blocked domains from {}", blocklist.size(), source);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Cannot load domain blocklist {}, keeping the current one", source, e);
+        }
+    }
+}
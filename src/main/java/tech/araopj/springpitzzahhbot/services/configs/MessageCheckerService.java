@@ -23,31 +23,120 @@
  */
 package tech.araopj.springpitzzahhbot.services.configs;
 
+import tech.araopj.springpitzzahhbot.moderation.TextNormalizer.NormalizedText;
 import tech.araopj.springpitzzahhbot.configs.ModerationConfig;
+import tech.araopj.springpitzzahhbot.moderation.TextNormalizer;
+import tech.araopj.springpitzzahhbot.moderation.AhoCorasick;
+import tech.araopj.springpitzzahhbot.moderation.WordOverlay;
 import org.springframework.stereotype.Service;
-import java.net.URI;
-import java.nio.charset.StandardCharsets;
-import com.google.common.io.Resources;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public record MessageCheckerService(ModerationConfig moderationConfig) {
 
+    private static final ThreadLocal<Scan> SCANS = ThreadLocal.withInitial(Scan::new);
+
     public boolean searchForBadWord(String rawMessage) {
-        return moderationConfig.warnings()
-                .stream()
-                .filter(rawMessage::contains)
-                .anyMatch(rawMessage::equalsIgnoreCase);
+        return containsBadWord(WordOverlay.empty(), rawMessage);
+    }
+
+    public boolean searchForBadWord(long guildId, String rawMessage) {
+        return containsBadWord(overlay(guildId), rawMessage);
+    }
+
+    /**
+     * Finds every swear word in a message in a single pass.
+     * The message is normalized first so that case tricks, look-alike letters, leetspeak and invisible
+     * characters do not hide a word. Only whole words are reported, so a word hidden inside a longer
+     * harmless word does not count.
+     * @param rawMessage the message to check.
+     * @return the matched words and their positions in the raw message.
+     */
+    public List<AhoCorasick.Match> findBadWords(String rawMessage) {
+        return findBadWords(WordOverlay.empty(), rawMessage);
     }
 
     /**
-     * Loads the swear words from a list from a GitHub repository and adds the csv file to a
-     * {@code List<String>}.
-     * @throws IOException if the list is not present.
+     * Finds every swear word in a message sent in a guild, applying the guild's own word list on top of
+     * the shared one.
+     * @param guildId the id of the guild the message was sent in.
+     * @param rawMessage the message to check.
+     * @return the matched words and their positions in the raw message.
+     * @see #findBadWords(String)
      */
-    public void loadSwearWords() throws IOException {
-        final var URL = URI.create("https://raw.githubusercontent.com/pitzzahh/list-of-bad-words/main/list.txt");
-        moderationConfig.warnings().addAll(Resources.readLines(URL.toURL(), StandardCharsets.UTF_8));
+    public List<AhoCorasick.Match> findBadWords(long guildId, String rawMessage) {
+        return findBadWords(overlay(guildId), rawMessage);
+    }
+
+    private WordOverlay overlay(long guildId) {
+        return moderationConfig.guildWordOverlays().getOrDefault(guildId, WordOverlay.empty());
+    }
+
+    private boolean containsBadWord(WordOverlay overlay, String rawMessage) {
+        final var text = TextNormalizer.normalize(rawMessage);
+        final var scan = SCANS.get();
+        return scan.run(moderationConfig.swearWordMatcher().get(), overlay, text, false)
+                || scan.run(overlay.deniedMatcher(), WordOverlay.empty(), text, false);
+    }
+
+    private List<AhoCorasick.Match> findBadWords(WordOverlay overlay, String rawMessage) {
+        final var text = TextNormalizer.normalize(rawMessage);
+        final var scan = SCANS.get();
+        scan.run(moderationConfig.swearWordMatcher().get(), overlay, text, true);
+        scan.run(overlay.deniedMatcher(), WordOverlay.empty(), text, true);
+        return scan.takeMatches();
+    }
+
+    private static boolean isWholeWord(CharSequence text, int start, int end) {
+        return (start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1))) &&
+               (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+    }
+
+    /**
+     * The listener of a scan, reused by the thread that owns it so checking a clean message does not allocate.
+     * The list of matches is only created once a word is found.
+     */
+    private static final class Scan implements AhoCorasick.MatchListener {
+
+        private AhoCorasick matcher;
+        private WordOverlay overlay;
+        private NormalizedText text;
+        private List<AhoCorasick.Match> matches;
+        private boolean collect;
+        private boolean found;
+
+        private boolean run(AhoCorasick matcher, WordOverlay overlay, NormalizedText text, boolean collect) {
+            this.matcher = matcher;
+            this.overlay = overlay;
+            this.text = text;
+            this.collect = collect;
+            this.found = false;
+            try {
+                matcher.scan(text, 0, text.length(), this);
+                return found;
+            } finally {
+                this.matcher = null;
+                this.overlay = null;
+                this.text = null;
+            }
+        }
+
+        private List<AhoCorasick.Match> takeMatches() {
+            final var taken = matches;
+            matches = null;
+            return taken == null ? List.of() : taken;
+        }
+
+        @Override
+        public boolean onMatch(int start, int end, int word) {
+            if (!isWholeWord(text, start, end) || overlay.isAllowed(matcher.word(word))) return true;
+            found = true;
+            if (!collect) return false;
+            if (matches == null) matches = new ArrayList<>(4);
+            matches.add(new AhoCorasick.Match(text.originalIndex(start), text.originalEnd(end), matcher.word(word)));
+            return true;
+        }
     }
 
 }
@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services.configs;
+
+import static io.github.pitzzahh.util.utilities.validation.Validator.isDecimalNumber;
+import static io.github.pitzzahh.util.utilities.validation.Validator.isWholeNumber;
+import tech.araopj.springpitzzahhbot.services.slash_commands.GameService;
+import tech.araopj.springpitzzahhbot.moderation.DuplicateWindow.Duplicate;
+import tech.araopj.springpitzzahhbot.moderation.ViolationReason;
+import tech.araopj.springpitzzahhbot.services.MessageUtilService;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import org.springframework.stereotype.Service;
+import static java.time.LocalDateTime.now;
+import static java.lang.String.format;
+import lombok.extern.slf4j.Slf4j;
+import static java.awt.Color.*;
+import java.time.ZoneId;
+
+/**
+ * Contains the checks the moderation pipeline runs on every message that is not a command.
+ */
+@Slf4j
+@Service
+public record MessageModerationService(
+        MessageCheckerService messageCheckerService,
+        LinkCheckerService linkCheckerService,
+        MessageUtilService messageUtilService,
+        DuplicateDetectorService duplicateDetectorService,
+        FloodDetectorService floodDetectorService,
+        ViolationService violationService,
+        DeletionCoalescerService deletionCoalescerService,
+        GameService gameService
+) {
+
+    /**
+     * Checks a message for flooding, duplicates, blocked links and bad words, warns the author and deletes the message if it breaks a rule.
+     * @param event the event of the message to check.
+     */
+    public void scan(MessageReceivedEvent event) {
+        final var AUTHOR = event.getAuthor();
+        if (AUTHOR.isBot()) return;
+        final var sentAt = event.getMessage().getTimeCreated().toInstant().toEpochMilli();
+        if (floodDetectorService.isFlooding(event.getGuild().getIdLong(), AUTHOR.getIdLong(), sentAt)) {
+            log.info("{} is flooding {}", AUTHOR.getAsTag(), event.getChannel().getName());
+            punish(event, ViolationReason.FLOOD, "Please don't spam or flood the chat");
+            return;
+        }
+        final var duplicate = duplicateDetectorService.check(event.getChannel().getIdLong(), AUTHOR.getIdLong(), event.getMessage().getContentRaw(), sentAt);
+        if (duplicate != Duplicate.NONE) {
+            log.info("{} sent a duplicate message in {}: {}", AUTHOR.getAsTag(), event.getChannel().getName(), duplicate);
+            punish(event, ViolationReason.DUPLICATE, "Please don't post the same message repeatedly");
+            return;
+        }
+        final var links = linkCheckerService.check(event.getMessage().getContentRaw());
+        switch (links.kind()) {
+            case BLOCKED_DOMAIN -> {
+                log.info("{} linked to blocked domain {}", AUTHOR.getAsTag(), links.domain());
+                punish(event, ViolationReason.BLOCKED_LINK, "Links to this website are not allowed");
+                return;
+            }
+            case INVITE -> {
+                log.info("{} posted an invite: {}", AUTHOR.getAsTag(), links.domain());
+                punish(event, ViolationReason.INVITE, "Please don't post invites to other servers");
+                return;
+            }
+            default -> { }
+        }
+        var contains = messageCheckerService.searchForBadWord(event.getGuild().getIdLong(), event.getMessage().getContentRaw());
+        log.info("is bad word = " + contains);
+        if (contains) punish(event, ViolationReason.BAD_WORD, "Please don't use bad words");
+    }
+
+    /**
+     * Adds a violation to the author of a message that broke a rule and deletes the message.
+     * The author is timed out after the third violation, otherwise the author is warned.
+     * @param event the event of the message that broke a rule.
+     * @param reason the rule that was broken, also the title of the warning.
+     * @param description the description of the warning.
+     */
+    private void punish(MessageReceivedEvent event, ViolationReason reason, String description) {
+        final var AUTHOR = event.getAuthor();
+        var isVeryBad = violationService.addViolationAndCheck(
+                event.getGuild().getIdLong(),
+                AUTHOR.getIdLong(),
+                event.getChannel().getIdLong(),
+                reason
+        );
+        if (isVeryBad) {
+            messageUtilService.generateBotSentMessage(
+                    event,
+                    RED,
+                    ViolationReason.TIMED_OUT.getTitle(),
+                    "Cannot send messages until " + now(ZoneId.of("UTC")).plusMinutes(5),
+                    now(ZoneId.of("UTC")),
+                    format("Scanned by %s", event.getJDA().getSelfUser().getAsTag())
+            );
+            event.getChannel()
+                    .sendMessageEmbeds(messageUtilService.getEmbedBuilder().build())
+                    .queue();
+            AUTHOR.retrieveProfile()
+                    .timeout(5, MINUTES) // TODO: use config to get the time out
+                    .queue();
+        } else {
+            messageUtilService.generateAutoDeleteMessage(event, RED, reason.getTitle(), description);
+            event.getMessage()
+                    .replyEmbeds(messageUtilService.getEmbedBuilder().build())
+                    .mentionRepliedUser(true)
+                    .queue(m -> m.delete().queueAfter(messageUtilService.getReplyDeletionDelayInMinutes(), MINUTES));
+        }
+        deletionCoalescerService.delete(
+                event.getChannel(),
+                event.getMessageIdLong(),
+                messageUtilService.getMessageDeletionDelayInSeconds(),
+                SECONDS
+        );
+    }
+
+    /**
+     * Checks the answer of a user that is playing a game.
+     * @param event the event of the message that may contain an answer.
+     */
+    public void checkAnswer(MessageReceivedEvent event) {
+        final var AUTHOR = event.getAuthor();
+        final var MESSAGE = event.getMessage().getContentRaw();
+        if (gameService.isTheOneWhoPlays(AUTHOR.getName())) {
+            if (isWholeNumber().or(isDecimalNumber()).test(MESSAGE)) {
+                final var IS_CORRECT = gameService.processAnswer(MESSAGE);
+                if (IS_CORRECT) {
+                    messageUtilService.generateBotSentMessage(
+                            event,
+                            BLUE,
+                            "Correct!",
+                            "You got it right!",
+                            now(ZoneId.of("UTC")),
+                            format("Checked by %s", event.getJDA().getSelfUser().getAsTag())
+                    );
+                } else {
+                    messageUtilService.generateBotSentMessage(
+                            event,
+                            BLUE,
+                            "Wrong answer!",
+                            "Correct answer is " + gameService.getAnswer(AUTHOR.getName()),
+                            now(ZoneId.of("UTC")),
+                            format("Checked by %s", event.getJDA().getSelfUser().getAsTag())
+                    );
+                }
+                event.getMessage()
+                        .replyEmbeds(messageUtilService.getEmbedBuilder().build())
+                        .queue();
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services.configs;
+
+import tech.araopj.springpitzzahhbot.configs.ModerationPipelineConfig;
+import tech.araopj.springpitzzahhbot.moderation.LatencyRecorder;
+import tech.araopj.springpitzzahhbot.moderation.OverloadPolicy;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.BlockingQueue;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.util.Arrays;
+
+/**
+ * Runs the moderation checks of messages off the JDA event threads.
+ * <p>
+ * Messages are spread over a fixed number of lanes by channel, each lane has one thread and a bounded
+ * queue, so messages of a channel are always checked in the order they were sent. What happens when a
+ * lane's queue fills up is decided by the configured {@link OverloadPolicy}.
+ */
+@Slf4j
+@Service
+public class ModerationPipelineService {
+
+    private final MessageModerationService messageModerationService;
+    private final OverloadPolicy overloadPolicy;
+    private final int shedThreshold;
+    private final Lane[] lanes;
+    private final LatencyRecorder scanLatency = new LatencyRecorder();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public ModerationPipelineService(ModerationPipelineConfig config, MessageModerationService messageModerationService) {
+        this.messageModerationService = messageModerationService;
+        this.overloadPolicy = config.getOverloadPolicy();
+        this.shedThreshold = Math.max(1, config.getQueueCapacity() * config.getShedThresholdPercent() / 100);
+        this.lanes = new Lane[Math.max(1, config.getLanes())];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(config.getQueueCapacity());
+            final var thread = new Thread(lanes[i], "moderation-lane-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            lanes[i].thread = thread;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (var lane : lanes) lane.thread.interrupt();
+    }
+
+    /**
+     * Queues a message to be checked.
+     * @param event the event of the message.
+     */
+    public void submit(MessageReceivedEvent event) {
+        final var channelId = event.getChannel().getIdLong();
+        final var lane = lanes[Math.floorMod(Long.hashCode(channelId * 0x9E3779B97F4A7C15L), lanes.length)];
+        final var checkAnswers = overloadPolicy != OverloadPolicy.SHED_GAME_CHECKS || lane.queue.size() < shedThreshold;
+        final Runnable task = () -> process(event, checkAnswers);
+        submitted.increment();
+        if (!checkAnswers) shed.increment();
+        if (overloadPolicy == OverloadPolicy.DROP) {
+            if (!lane.queue.offer(task)) {
+                dropped.increment();
+                log.warn("Moderation queue is full, message {} was not checked", event.getMessageId());
+            }
+            return;
+        }
+        try {
+            lane.queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+        }
+    }
+
+    private void process(MessageReceivedEvent event, boolean checkAnswers) {
+        final var start = System.nanoTime();
+        messageModerationService.scan(event);
+        scanLatency.record(System.nanoTime() - start);
+        if (checkAnswers) messageModerationService.checkAnswer(event);
+    }
+
+    /**
+     * Takes a snapshot of the pipeline metrics.
+     * @return the current {@code Metrics}.
+     */
+    public Metrics metrics() {
+        return new Metrics(
+                Arrays.stream(lanes).mapToInt(lane -> lane.queue.size()).sum(),
+                submitted.sum(),
+                shed.sum(),
+                dropped.sum(),
+                scanLatency.count(),
+                scanLatency.averageMicros(),
+                scanLatency.maxMicros()
+        );
+    }
+
+    /**
+     * Metrics of the moderation pipeline.
+     * @param queueDepth the number of messages waiting to be checked.
+     * @param submitted the number of messages submitted.
+     * @param shed the number of messages whose game checks were skipped.
+     * @param dropped the number of messages that were not checked at all.
+     * @param scans the number of messages scanned.
+     * @param averageScanMicros the average time to scan a message.
+     * @param maxScanMicros the longest time to scan a message.
+     */
+    public record Metrics(
+            int queueDepth,
+            long submitted,
+            long shed,
+            long dropped,
+            long scans,
+            long averageScanMicros,
+            long maxScanMicros
+    ) { }
+
+    private static final class Lane implements Runnable {
+
+        private final BlockingQueue<Runnable> queue;
+        private Thread thread;
+
+        private Lane(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    queue.take().run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    log.error("Error while checking a message", e);
+                }
+            }
+        }
+    }
+}
@@ -1,34 +1,229 @@
 package tech.araopj.springpitzzahhbot.services.configs;
 
+import tech.araopj.springpitzzahhbot.moderation.ViolationJournal.SnapshotWriter;
+import tech.araopj.springpitzzahhbot.moderation.ViolationJournal.Replayer;
+import tech.araopj.springpitzzahhbot.moderation.ViolationReason;
+import tech.araopj.springpitzzahhbot.moderation.AuditLog;
+import tech.araopj.springpitzzahhbot.moderation.ViolationJournal;
+import tech.araopj.springpitzzahhbot.moderation.ViolationRecord;
 import tech.araopj.springpitzzahhbot.configs.ModerationConfig;
+import tech.araopj.springpitzzahhbot.configs.ViolationConfig;
+import java.util.concurrent.ScheduledExecutorService;
 import org.springframework.stereotype.Service;
-import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Keeps a violation score for every member that broke a rule.
+ * <p>
+ * Scores halve every configured half-life, so three violations in a few seconds get a member timed out
+ * while the same violations spread over weeks do not. Scores that decayed to almost nothing are removed
+ * by a background sweep, so only members that broke a rule recently take up memory.
+ * <p>
+ * Every violation is also appended to a {@link ViolationJournal}, which is replayed on boot so a restart
+ * does not wipe the scores of repeat offenders, and kept in an {@link AuditLog} that admins can query.
+ */
+@Slf4j
 @Service
-public record ViolationService(ModerationConfig moderationConfig) {
+public class ViolationService {
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "violation-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ModerationConfig moderationConfig;
+    private final ViolationConfig violationConfig;
+    private volatile ViolationJournal journal;
+
+    public ViolationService(ModerationConfig moderationConfig, ViolationConfig violationConfig) {
+        this.moderationConfig = moderationConfig;
+        this.violationConfig = violationConfig;
+    }
+
+    @PostConstruct
+    public void start() {
+        final var scores = moderationConfig.violations();
+        try {
+            journal = ViolationJournal.open(
+                    Path.of(violationConfig.getJournalDirectory()),
+                    violationConfig.getRecordsPerSegment(),
+                    new Replayer() {
+                        @Override
+                        public void restore(DataInputStream in) throws IOException {
+                            // read all of it first, so a snapshot that fails halfway leaves nothing behind
+                            final var restored = new ArrayList<Runnable>();
+                            while (in.readBoolean()) {
+                                final var guildId = in.readLong();
+                                final var userId = in.readLong();
+                                final var score = in.readDouble();
+                                final var updatedAt = in.readLong();
+                                restored.add(() -> scores.put(guildId, userId, score, updatedAt));
+                            }
+                            final var records = readAuditLog(in);
+                            restored.forEach(Runnable::run);
+                            records.forEach(moderationConfig.auditLog()::add);
+                        }
+
+                        @Override
+                        public void replay(ViolationRecord record) {
+                            apply(record);
+                        }
+                    }
+            );
+            log.info("Restored violation scores of {} members", scores.size());
+        } catch (IOException e) {
+            log.error("Cannot open the moderation journal, violations will be lost on restart", e);
+        }
+        final var flushInterval = violationConfig.getFlushIntervalInMillis();
+        sweeper.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        final var sweepInterval = violationConfig.getSweepIntervalInMinutes();
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepInterval, sweepInterval, TimeUnit.MINUTES);
+        final var snapshotInterval = violationConfig.getSnapshotIntervalInMinutes();
+        sweeper.scheduleWithFixedDelay(this::snapshot, snapshotInterval, snapshotInterval, TimeUnit.MINUTES);
+    }
+
+    public double getViolationScore(long guildId, long userId) {
+        return moderationConfig.violations().get(guildId, userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Adds a violation and checks if the score reached the timeout score, the score starts over when it did.
+     * @param guildId the id of the guild the violation happened in.
+     * @param userId the id of the user who violated.
+     * @param channelId the id of the channel the violation happened in.
+     * @param reason the rule that was broken.
+     * @return {@code true} if the user should be timed out.
+     */
+    public boolean addViolationAndCheck(long guildId, long userId, long channelId, ViolationReason reason) {
+        final var now = System.currentTimeMillis();
+        final var timedOut = new boolean[1];
+        final var violation = new ViolationRecord(now, guildId, userId, channelId, reason, 1);
+        append(violation, () -> {
+            moderationConfig.auditLog().add(violation);
+            timedOut[0] = moderationConfig.violations().addAndReset(guildId, userId, 1, violationConfig.getTimeoutScore(), now);
+        });
+        if (timedOut[0]) {
+            final var timeout = new ViolationRecord(now, guildId, userId, channelId, ViolationReason.TIMED_OUT, 0);
+            append(timeout, () -> moderationConfig.auditLog().add(timeout));
+        }
+        return timedOut[0];
+    }
+
+    private void append(ViolationRecord record, Runnable apply) {
+        final var journal = this.journal;
+        if (journal == null) apply.run();
+        else journal.append(record, apply);
+    }
 
     /**
-     * Adds violation to anyone who says a bad words.
-     * @param username the username of the user who violated.
+     * Gets a page of the recent violations in a guild, newest first.
+     * @param scope whether to list the violations of a user, of a channel or of the whole guild.
+     * @param guildId the id of the guild.
+     * @param subject the id of the user or the channel.
+     * @param sinceInMillis the oldest time to include.
+     * @param cursor where the page starts, {@code null} for the newest violations.
+     * @param limit the maximum number of violations.
+     * @return the page.
      */
-    public void addViolation(final String username) {
-        moderationConfig.violations().put(username, getViolationCount(username) + 1);
+    public AuditLog.Page getViolations(AuditLog.Scope scope, long guildId, long subject, long sinceInMillis, AuditLog.Cursor cursor, int limit) {
+        return moderationConfig.auditLog().page(scope, guildId, subject, sinceInMillis, cursor, limit);
+    }
+
+    private void apply(ViolationRecord record) {
+        moderationConfig.auditLog().add(record);
+        final var scores = moderationConfig.violations();
+        if (record.reason() == ViolationReason.TIMED_OUT) scores.remove(record.guildId(), record.userId());
+        else scores.add(record.guildId(), record.userId(), record.weight(), record.timeInMillis());
+    }
+
+    private void flush() {
+        if (journal != null) journal.flush();
+    }
+
+    private void sweep() {
+        final var purged = moderationConfig.violations().purge(violationConfig.getEpsilon(), System.currentTimeMillis());
+        if (purged > 0) log.info("Purged {} decayed violation scores", purged);
+    }
+
+    private void snapshot() {
+        if (journal == null) return;
+        try {
+            journal.snapshot(this::captureState);
+        } catch (IOException e) {
+            log.error("Cannot write a moderation snapshot, the journal keeps growing until one succeeds", e);
+        }
+    }
+
+    /**
+     * Copies the scores and the audit log while appends wait, the copy is written to disk after they resume.
+     * @return writes the copied state.
+     */
+    private SnapshotWriter captureState() throws IOException {
+        final var scores = new ByteArrayOutputStream(Math.max(moderationConfig.violations().size(), 16) * 33);
+        writeScores(new DataOutputStream(scores));
+        final var records = moderationConfig.auditLog().records();
+        return out -> {
+            scores.writeTo(out);
+            for (var record : records) {
+                out.writeBoolean(true);
+                out.writeLong(record.timeInMillis());
+                out.writeLong(record.guildId());
+                out.writeLong(record.userId());
+                out.writeLong(record.channelId());
+                out.writeInt(record.reason().ordinal());
+                out.writeDouble(record.weight());
+            }
+            out.writeBoolean(false);
+        };
+    }
+
+    private void writeScores(DataOutputStream out) throws IOException {
+        final var failure = new IOException[1];
+        moderationConfig.violations().forEach((guildId, userId, score, updatedAt) -> {
+            if (failure[0] != null) return;
+            try {
+                out.writeBoolean(true);
+                out.writeLong(guildId);
+                out.writeLong(userId);
+                out.writeDouble(score);
+                out.writeLong(updatedAt);
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) throw failure[0];
+        out.writeBoolean(false);
     }
 
-    private Integer getViolationCount(String username) {
-        return moderationConfig.violations()
-                .entrySet()
-                .stream()
-                .filter(e -> e.getKey().equals(username))
-                .map(Map.Entry::getValue)
-                .findFirst()
-                .orElse(0);
+    private List<ViolationRecord> readAuditLog(DataInputStream in) throws IOException {
+        final var records = new ArrayList<ViolationRecord>();
+        try {
+            while (in.readBoolean()) {
+                final var record = new ViolationRecord(in.readLong(), in.readLong(), in.readLong(), in.readLong(), ViolationReason.of(in.readInt()), in.readDouble());
+                if (record.reason() != null) records.add(record);
+            }
+        } catch (EOFException e) {
+            log.info("Moderation snapshot has no audit log, starting with an empty one");
+        }
+        return records;
     }
 
-    public boolean violatedThreeTimes(String username) {
-        var violated = getViolationCount(username) >= 3;
-        if (violated) moderationConfig.violations().remove(username);
-        return violated;
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+        if (journal != null) journal.close();
     }
 
 }
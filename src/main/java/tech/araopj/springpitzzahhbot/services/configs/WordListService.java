@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services.configs;
+
+import tech.araopj.springpitzzahhbot.services.GuildPropertiesStore;
+import tech.araopj.springpitzzahhbot.configs.ModerationConfig;
+import tech.araopj.springpitzzahhbot.configs.DictionaryConfig;
+import tech.araopj.springpitzzahhbot.moderation.TextNormalizer;
+import tech.araopj.springpitzzahhbot.moderation.WordOverlay;
+import org.springframework.stereotype.Service;
+import java.util.function.UnaryOperator;
+import jakarta.annotation.PostConstruct;
+import java.io.UncheckedIOException;
+import lombok.extern.slf4j.Slf4j;
+import java.util.stream.Collectors;
+import java.util.Properties;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.Map;
+
+/**
+ * Manages the words a guild adds to, or removes from, the shared swear word list.
+ * Every change only recompiles that guild's own words, and is saved to the properties file of that guild so it
+ * survives restarts.
+ */
+@Slf4j
+@Service
+public class WordListService {
+
+    private static final String DENIED = "denied";
+    private static final String ALLOWED = "allowed";
+
+    private final Map<Long, WordOverlay> overlays;
+    private final GuildPropertiesStore store;
+
+    public WordListService(ModerationConfig moderationConfig, DictionaryConfig dictionaryConfig) {
+        this.overlays = moderationConfig.guildWordOverlays();
+        this.store = new GuildPropertiesStore(
+                Path.of(dictionaryConfig.getGuildWordListsDirectory()),
+                "Words the guild blocks or allows on top of the shared swear word list"
+        );
+    }
+
+    @PostConstruct
+    public void load() {
+        store.load().forEach((guildId, properties) -> {
+            final var overlay = WordOverlay.of(
+                    words(properties.getProperty(DENIED)),
+                    words(properties.getProperty(ALLOWED))
+            );
+            if (!overlay.isEmpty()) overlays.put(guildId, overlay);
+        });
+        log.info("Loaded the word lists of {} guilds", overlays.size());
+    }
+
+    public WordOverlay getOverlay(long guildId) {
+        return overlays.getOrDefault(guildId, WordOverlay.empty());
+    }
+
+    public WordOverlay deny(long guildId, String word) {
+        final var normalized = normalize(word);
+        return update(guildId, overlay -> overlay.deny(normalized));
+    }
+
+    public WordOverlay allow(long guildId, String word) {
+        final var normalized = normalize(word);
+        return update(guildId, overlay -> overlay.allow(normalized));
+    }
+
+    public WordOverlay remove(long guildId, String word) {
+        final var normalized = normalize(word);
+        return update(guildId, overlay -> overlay.remove(normalized));
+    }
+
+    /**
+     * Normalizes a word the way messages are normalized before they are scanned.
+     * @throws IllegalArgumentException if nothing is left of the word, such as a word of zero-width spaces only.
+     */
+    private static String normalize(String word) {
+        final var normalized = TextNormalizer.normalizeToString(word.trim());
+        if (normalized.isBlank()) throw new IllegalArgumentException("The word has no letters or digits to match");
+        return normalized;
+    }
+
+    /**
+     * Changes the overlay of a guild, the change is saved before it is published so a failed save changes nothing.
+     * @throws UncheckedIOException if the word list of the guild cannot be saved.
+     */
+    private WordOverlay update(long guildId, UnaryOperator<WordOverlay> change) {
+        synchronized (store.lock(guildId)) {
+            final var updated = change.apply(getOverlay(guildId));
+            final var properties = new Properties();
+            if (!updated.denied().isEmpty()) properties.setProperty(DENIED, join(updated.denied()));
+            if (!updated.allowed().isEmpty()) properties.setProperty(ALLOWED, join(updated.allowed()));
+            store.save(guildId, properties);
+            if (updated.isEmpty()) overlays.remove(guildId);
+            else overlays.put(guildId, updated);
+            return updated;
+        }
+    }
+
+    private static Set<String> words(String joined) {
+        return joined == null ? Set.of() : joined.lines().filter(word -> !word.isEmpty()).collect(Collectors.toSet());
+    }
+
+    private static String join(Set<String> words) {
+        // one word per line, words may contain spaces
+        return String.join("\n", words);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services.slash_commands;
+
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import tech.araopj.springpitzzahhbot.commands.slash_commands.AutoCompleteIndex;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import tech.araopj.springpitzzahhbot.configs.HttpConfig;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.stereotype.Service;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.util.List;
+
+/**
+ * Suggests the joke categories and languages of the joke commands.
+ * <p>
+ * The options are fetched from the jokes API in the background and refreshed periodically, so answering
+ * an autocomplete interaction only reads an in memory index. If a refresh fails the previous options are kept.
+ */
+@Slf4j
+@Service
+public class JokeOptionsService {
+
+    private final AtomicReference<AutoCompleteIndex> categories = new AtomicReference<>(AutoCompleteIndex.empty());
+    private final AtomicReference<AutoCompleteIndex> languages = new AtomicReference<>(AutoCompleteIndex.empty());
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "joke-options-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final JokesService jokesService;
+    private final long refreshIntervalInMinutes;
+
+    public JokeOptionsService(JokesService jokesService, HttpConfig httpConfig) {
+        this.jokesService = jokesService;
+        this.refreshIntervalInMinutes = httpConfig.getJokeOptionsRefreshIntervalInMinutes();
+    }
+
+    @PostConstruct
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalInMinutes, TimeUnit.MINUTES);
+    }
+
+    private void refresh() {
+        jokesService.getCategories()
+                .thenAccept(fetched -> categories.set(AutoCompleteIndex.of(fetched)))
+                .exceptionally(e -> {
+                    log.warn("Cannot refresh the joke categories, keeping {} known categories", categories.get().size(), e);
+                    return null;
+                });
+        jokesService.getLanguages()
+                .thenAccept(fetched -> languages.set(AutoCompleteIndex.of(fetched)))
+                .exceptionally(e -> {
+                    log.warn("Cannot refresh the joke languages, keeping {} known languages", languages.get().size(), e);
+                    return null;
+                });
+    }
+
+    /**
+     * Suggests joke categories.
+     * @param typed what the user typed so far.
+     * @return at most 25 categories.
+     */
+    public List<Command.Choice> completeCategory(String typed) {
+        return categories.get().complete(typed, AutoCompleteIndex.MAX_CHOICES);
+    }
+
+    /**
+     * Suggests joke languages.
+     * @param typed what the user typed so far.
+     * @return at most 25 languages.
+     */
+    public List<Command.Choice> completeLanguage(String typed) {
+        return languages.get().complete(typed, AutoCompleteIndex.MAX_CHOICES);
+    }
+
+    /**
+     * Answers the autocomplete of the {@code category} and {@code language} options of the joke commands.
+     * @param event the autocomplete interaction.
+     */
+    public void autoComplete(CommandAutoCompleteInteractionEvent event) {
+        final var focused = event.getFocusedOption();
+        final var choices = switch (focused.getName()) {
+            case "category" -> completeCategory(focused.getValue());
+            case "language" -> completeLanguage(focused.getValue());
+            default -> List.<Command.Choice>of();
+        };
+        event.replyChoices(choices).queue();
+    }
+
+    /**
+     * Checks a category, any category is accepted until the categories were fetched once.
+     * @param category the value of the category option.
+     * @return {@code true} if the jokes API knows the category.
+     */
+    public boolean isKnownCategory(String category) {
+        final var index = categories.get();
+        return index.isEmpty() || index.containsValue(category);
+    }
+
+    /**
+     * Checks a language, any language is accepted until the languages were fetched once.
+     * @param language the value of the language option.
+     * @return {@code true} if the jokes API knows the language.
+     */
+    public boolean isKnownLanguage(String language) {
+        final var index = languages.get();
+        return index.isEmpty() || index.containsValue(language);
+    }
+
+    /**
+     * Checks the options of a joke command, autocomplete only suggests values so users can still type any text.
+     * @param category the category option, {@code null} if it was not given.
+     * @param language the language option, {@code null} if it was not given.
+     * @return {@code true} if every given option is known to the jokes API.
+     */
+    public boolean areKnown(OptionMapping category, OptionMapping language) {
+        return (category == null || isKnownCategory(category.getAsString()))
+                && (language == null || isKnownLanguage(language.getAsString()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+}
@@ -33,87 +33,131 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import tech.araopj.springpitzzahhbot.configs.HttpConfig;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
 import com.google.gson.reflect.TypeToken;
 import java.util.stream.Collectors;
+import java.io.UncheckedIOException;
 import java.net.http.HttpResponse;
 import java.net.http.HttpRequest;
 import lombok.extern.slf4j.Slf4j;
 import java.util.Collection;
+import java.net.URLEncoder;
 import com.google.gson.Gson;
 import java.util.ArrayList;
+import java.util.Optional;
 import java.util.Arrays;
+import java.time.Duration;
 import java.net.URI;
 
+/**
+ * Talks to the jokes API without blocking.
+ * <p>
+ * Every request is sent with {@link java.net.http.HttpClient#sendAsync}, and its response is parsed in the
+ * returned {@code CompletableFuture}, so no thread waits on the API. A failed request completes the future
+ * exceptionally instead of throwing.
+ * <p>
+ * Commands return before the request completes, so the command bulkheads do not bound the requests. They are
+ * bounded here instead: a request needs one of the {@link HttpConfig#jokeApiPermits()} and times out after the
+ * configured timeout, a request over the limit fails right away.
+ */
 @Slf4j
 @Service
 public record JokesService(
         SecretService secretService,
-        HttpConfig httpConfig
+        HttpConfig httpConfig,
+        Semaphore jokeApiPermits
 ) {
 
-    public Collection<Category> getCategories() {
-        var httpResponseCompletableFuture = httpConfig.httpClient()
-                .sendAsync(HttpRequest.newBuilder()
-                                .GET()
-                                .uri(URI.create("https://jokes.araopj.tech/v1/resource/categories"))
-                                .build(),
-                        HttpResponse.BodyHandlers.ofString()
-                );
-        HttpResponse<String> stringHttpResponse;
-        try {
-            stringHttpResponse = httpResponseCompletableFuture.get();
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error while getting categories", e);
-            throw new RuntimeException(e);
-        }
-
-        var categories = (String[]) new Gson().fromJson(stringHttpResponse.body(), new TypeToken<String[]>() {
-        }.getType());
-
-        // Now the categories array should contain the parsed values
-        log.info("Categories: {}", Arrays.toString(categories));
-        return Arrays.stream(categories)
-                .map(category -> new Category(category, category))
-                .collect(Collectors.toCollection(ArrayList::new));
+    public CompletableFuture<Collection<Category>> getCategories() {
+        return send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("https://jokes.araopj.tech/v1/resource/categories"))
+        ).thenApply(response -> {
+            var categories = (String[]) new Gson().fromJson(response.body(), new TypeToken<String[]>() {
+            }.getType());
+            log.info("Categories: {}", Arrays.toString(categories));
+            return Arrays.stream(categories)
+                    .map(category -> new Category(category, category))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        });
     }
 
-    public Collection<Language> getLanguages() {
-        var httpResponseCompletableFuture = httpConfig.httpClient()
-                .sendAsync(HttpRequest.newBuilder()
-                        .GET()
-                        .uri(URI.create("https://jokes.araopj.tech/v1/resource/languages"))
-                        .build(), HttpResponse.BodyHandlers.ofString());
-        HttpResponse<String> stringHttpResponse;
-        try {
-            stringHttpResponse = httpResponseCompletableFuture.get();
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error while getting languages", e);
-            throw new RuntimeException(e);
-        }
-
-        var languages = (String[]) new Gson().fromJson(stringHttpResponse.body(), new TypeToken<String[]>() {
-        }.getType());
+    public CompletableFuture<Collection<Language>> getLanguages() {
+        return send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("https://jokes.araopj.tech/v1/resource/languages"))
+        ).thenApply(response -> {
+            var languages = (String[]) new Gson().fromJson(response.body(), new TypeToken<String[]>() {
+            }.getType());
+            log.info("Languages: {}", Arrays.toString(languages));
+            return Arrays.stream(languages)
+                    .map(language -> new Language(language, language))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        });
+    }
 
-        // Now the categories array should contain the parsed values
-        log.info("Languages: {}", Arrays.toString(languages));
+    /**
+     * Gets a random joke.
+     * @param category the category of the joke, {@code null} for any category.
+     * @param language the language of the joke, {@code null} for any language.
+     * @return a future of the joke, empty if the jokes API has no joke for the options.
+     */
+    public CompletableFuture<Optional<String>> getRandomJoke(OptionMapping category, OptionMapping language) {
+        final var url = createJokeRequestUrl(category, language);
+        log.info("Get Joke url: {}", url);
+        return send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create(url))
+        ).thenApply(response -> {
+            log.info("Response from joke api: {}", response.body());
+            if (response.statusCode() != 200) return Optional.empty();
+            try {
+                return Optional.ofNullable(new ObjectMapper().readTree(response.body()).get("joke")).map(joke -> joke.asText());
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException("Cannot parse the joke api response", e);
+            }
+        });
+    }
 
-        return Arrays.stream(languages)
-                .map(language -> new Language(language, language))
-                .collect(Collectors.toCollection(ArrayList::new));
+    /**
+     * Submits a joke for review.
+     * @param joke the joke.
+     * @param category the category of the joke, {@code null} if it has none.
+     * @param language the language of the joke.
+     * @return a future of the response, whose status tells whether the joke was accepted.
+     */
+    public CompletableFuture<HttpResponse<String>> submitJoke(OptionMapping joke, OptionMapping category, OptionMapping language) {
+        final var body = createJokeSubmitBody(joke, category, language);
+        log.info("Submit Joke body: {}", body);
+        return send(HttpRequest.newBuilder()
+                .uri(URI.create(createJokeSubmitUrl()))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+        ).thenApply(response -> {
+            log.info("Response from joke api: {}", response.body());
+            return response;
+        });
     }
 
     public String createJokeRequestUrl(OptionMapping category, OptionMapping language) {
         var url = httpConfig.getJokeApiUrl();
         if (category != null && language != null)
-            url += "random?category=" + category.getAsString() + "&language=" + language.getAsString();
-        else if (category != null) url += "random?category=" + category.getAsString();
-        else if (language != null) url += "random?language=" + language.getAsString();
+            url += "random?category=" + encode(category) + "&language=" + encode(language);
+        else if (category != null) url += "random?category=" + encode(category);
+        else if (language != null) url += "random?language=" + encode(language);
         else url += "random";
         return url;
     }
 
+    // options are typed freely now that they are autocompleted instead of fixed choices
+    private static String encode(OptionMapping option) {
+        return URLEncoder.encode(option.getAsString(), StandardCharsets.UTF_8);
+    }
+
     public String createJokeSubmitUrl() {
         return httpConfig.getJokeApiUrl().concat("submit");
     }
@@ -130,54 +174,51 @@ public record JokesService(
         return new Gson().toJson(jokeObject);
     }
 
-    public Collection<Joke> getSubmittedJokes() {
-        var httpResponseCompletableFuture = httpConfig.httpClient()
-                .sendAsync(HttpRequest.newBuilder()
-                                .GET()
-                                .uri(URI.create("%s/all".formatted(createJokeSubmitUrl())))
-                                .build(),
-                        HttpResponse.BodyHandlers.ofString()
-                );
-        HttpResponse<String> stringHttpResponse;
-        try {
-            stringHttpResponse = httpResponseCompletableFuture.get();
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error while getting categories", e);
-            throw new RuntimeException(e);
-        }
-        var objectMapper = new ObjectMapper();
-        Collection<Joke> jokes;
-        try {
-            jokes = objectMapper.readValue(stringHttpResponse.body(), new TypeReference<>() {
-            });
-            log.info("Submitted Jokes: {}", jokes);
-        } catch (JsonProcessingException e) {
-            log.error("Error while getting categories", e);
-            throw new RuntimeException(e);
-        }
-        return jokes
-                .stream()
-                .filter(j -> !j.approved())
-                .collect(Collectors.toCollection(ArrayList::new));
+    public CompletableFuture<Collection<Joke>> getSubmittedJokes() {
+        return send(HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create("%s/all".formatted(createJokeSubmitUrl())))
+        ).thenApply(response -> {
+            Collection<Joke> jokes;
+            try {
+                jokes = new ObjectMapper().readValue(response.body(), new TypeReference<>() {
+                });
+                log.info("Submitted Jokes: {}", jokes);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException("Cannot parse the submitted jokes", e);
+            }
+            return jokes
+                    .stream()
+                    .filter(j -> !j.approved())
+                    .collect(Collectors.toCollection(ArrayList::new));
+        });
     }
 
-    public boolean approveJoke(Joke joke) {
-        var httpResponseCompletableFuture = httpConfig.httpClient()
-                .sendAsync(HttpRequest.newBuilder()
-                                .uri(URI.create("%s/approve?key=%s&joke_id=%s".formatted(createJokeSubmitUrl(), secretService.getKey(), joke.id())))
-                                .build(),
-                        HttpResponse.BodyHandlers.ofString()
-                );
-        HttpResponse<String> stringHttpResponse;
+    public CompletableFuture<Boolean> approveJoke(Joke joke) {
+        return send(HttpRequest.newBuilder()
+                .uri(URI.create("%s/approve?key=%s&joke_id=%s".formatted(createJokeSubmitUrl(), secretService.getKey(), joke.id())))
+        ).thenApply(response -> {
+            log.info("Approve Joke Response: {}", response.body());
+            return response.body().equals("Joke approved successfully");
+        });
+    }
 
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest.Builder builder) {
+        final var request = builder.timeout(Duration.ofSeconds(httpConfig.getJokeApiRequestTimeoutInSeconds())).build();
+        if (!jokeApiPermits.tryAcquire()) {
+            log.warn("Too many requests to the joke api in flight, rejecting {}", request.uri().getPath());
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many requests to the joke api in flight"));
+        }
         try {
-            stringHttpResponse = httpResponseCompletableFuture.get();
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error while approving joke", e);
-            throw new RuntimeException(e);
+            return httpConfig.httpClient()
+                    .sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, e) -> {
+                        jokeApiPermits.release();
+                        if (e != null) log.error("Error while sending {} to the joke api", request.uri().getPath(), e);
+                    });
+        } catch (RuntimeException e) {
+            jokeApiPermits.release();
+            return CompletableFuture.failedFuture(e);
         }
-
-        log.info("Approve Joke Response: {}", stringHttpResponse.body());
-        return stringHttpResponse.body().equals("Joke approved successfully");
     }
 }
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+
+class CommandRateLimiterTest {
+
+    private static final RateLimit USER_LIMIT = RateLimit.of(2, Duration.ofMinutes(1));
+    private static final RateLimit GUILD_LIMIT = RateLimit.of(1, Duration.ofMinutes(1));
+
+    private final CommandRateLimiter rateLimiter = new CommandRateLimiter();
+
+    @AfterEach
+    void stop() {
+        rateLimiter.stop();
+    }
+
+    @Test
+    void limitsEachUserAndEachGuild() {
+        assertEquals(0L, rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 1, 10));
+        assertTrue(rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 1, 11) > 0);
+        assertEquals(0L, rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 2, 11));
+    }
+
+    @Test
+    void doesNotChargeTheUserWhenTheGuildIsLimited() {
+        assertEquals(0L, rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 1, 10));
+        for (int i = 0; i < 5; i++) assertTrue(rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 1, 11) > 0);
+        assertEquals(0L, rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 2, 11));
+        assertEquals(0L, rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 3, 11));
+    }
+
+    @Test
+    void keepsCommandsApart() {
+        assertEquals(0L, rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 1, 10));
+        assertEquals(0L, rateLimiter.tryAcquire("slash:ping", USER_LIMIT, GUILD_LIMIT, 1, 10));
+    }
+
+    @Test
+    void onlyLimitsUsersOutsideGuilds() {
+        assertEquals(0L, rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 0, 10));
+        assertEquals(0L, rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 0, 10));
+        assertTrue(rateLimiter.tryAcquire("chat:ping", USER_LIMIT, GUILD_LIMIT, 0, 10) > 0);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+
+class TokenBucketsTest {
+
+    // a token every second, up to three in a row
+    private static final RateLimit LIMIT = RateLimit.of(3, Duration.ofSeconds(3));
+
+    private final TokenBuckets buckets = new TokenBuckets(1);
+
+    @Test
+    void allowsTheBurstThenWaitsForTheNextToken() {
+        for (int i = 0; i < 3; i++) assertEquals(0L, buckets.tryAcquire(1, 2, LIMIT, 10_000));
+        assertEquals(1_000L, buckets.tryAcquire(1, 2, LIMIT, 10_000));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) buckets.tryAcquire(1, 2, LIMIT, 10_000);
+        assertEquals(1L, buckets.tryAcquire(1, 2, LIMIT, 10_999));
+        assertEquals(0L, buckets.tryAcquire(1, 2, LIMIT, 11_000));
+        assertEquals(1_000L, buckets.tryAcquire(1, 2, LIMIT, 11_000));
+    }
+
+    @Test
+    void isFullAgainAfterThePeriod() {
+        for (int i = 0; i < 3; i++) buckets.tryAcquire(1, 2, LIMIT, 10_000);
+        for (int i = 0; i < 3; i++) assertEquals(0L, buckets.tryAcquire(1, 2, LIMIT, 13_000));
+        assertTrue(buckets.tryAcquire(1, 2, LIMIT, 13_000) > 0);
+    }
+
+    @Test
+    void doesNotSaveUpTokensWhileIdle() {
+        buckets.tryAcquire(1, 2, LIMIT, 10_000);
+        for (int i = 0; i < 3; i++) assertEquals(0L, buckets.tryAcquire(1, 2, LIMIT, 60_000));
+        assertEquals(1_000L, buckets.tryAcquire(1, 2, LIMIT, 60_000));
+    }
+
+    @Test
+    void keepsTheBucketsOfDifferentKeysApart() {
+        for (int i = 0; i < 3; i++) buckets.tryAcquire(1, 2, LIMIT, 10_000);
+        assertEquals(0L, buckets.tryAcquire(1, 3, LIMIT, 10_000));
+        assertEquals(0L, buckets.tryAcquire(2, 2, LIMIT, 10_000));
+    }
+
+    @Test
+    void givesBackAReleasedToken() {
+        for (int i = 0; i < 3; i++) buckets.tryAcquire(1, 2, LIMIT, 10_000);
+        buckets.release(1, 2, LIMIT);
+        assertEquals(0L, buckets.tryAcquire(1, 2, LIMIT, 10_000));
+        assertEquals(1_000L, buckets.tryAcquire(1, 2, LIMIT, 10_000));
+    }
+
+    @Test
+    void neverLimitsWithoutALimit() {
+        for (int i = 0; i < 100; i++) assertEquals(0L, buckets.tryAcquire(1, 2, RateLimit.NONE, 10_000));
+        assertEquals(0, buckets.size());
+    }
+
+    @Test
+    void purgesTheBucketsThatAreFullAgain() {
+        buckets.tryAcquire(1, 2, LIMIT, 10_000);
+        for (int i = 0; i < 3; i++) buckets.tryAcquire(1, 3, LIMIT, 10_000);
+        assertEquals(2, buckets.size());
+        assertEquals(1, buckets.purge(11_000));
+        assertEquals(1, buckets.size());
+        assertEquals(1, buckets.purge(13_000));
+        assertEquals(0, buckets.size());
+        for (int i = 0; i < 3; i++) assertEquals(0L, buckets.tryAcquire(1, 3, LIMIT, 13_000));
+    }
+
+    @Test
+    void growsPastTheInitialCapacity() {
+        for (int i = 0; i < 1_000; i++) assertEquals(0L, buckets.tryAcquire(7, i, RateLimit.of(1, Duration.ofMinutes(1)), 10_000));
+        assertEquals(1_000, buckets.size());
+        for (int i = 0; i < 1_000; i++) assertTrue(buckets.tryAcquire(7, i, RateLimit.of(1, Duration.ofMinutes(1)), 10_000) > 0);
+    }
+}
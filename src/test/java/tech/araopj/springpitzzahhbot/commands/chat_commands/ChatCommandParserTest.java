@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.chat_commands;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+class ChatCommandParserTest {
+
+    @Test
+    void parsesPrefixNameAndArguments() {
+        final var parsed = ChatCommandParser.parse("!ping now please", "!");
+        assertNotNull(parsed);
+        assertEquals("!", parsed.prefix());
+        assertEquals("ping", parsed.name());
+        assertEquals(List.of("now", "please"), parsed.arguments());
+    }
+
+    @Test
+    void matchesThePrefixIgnoringCase() {
+        final var parsed = ChatCommandParser.parse("PZ help", "pz");
+        assertNotNull(parsed);
+        assertEquals("PZ", parsed.prefix());
+        assertEquals("help", parsed.name());
+    }
+
+    @Test
+    void ignoresMessagesWithoutThePrefix() {
+        assertNull(ChatCommandParser.parse("ping", "!"));
+        assertNull(ChatCommandParser.parse("", "!"));
+        assertNull(ChatCommandParser.parse("?ping", List.of("!", "pz")));
+    }
+
+    @Test
+    void skipsWhitespaceBetweenThePrefixAndTheName() {
+        final var parsed = ChatCommandParser.parse("!  \thelp   format", "!");
+        assertNotNull(parsed);
+        assertEquals("help", parsed.name());
+        assertEquals(List.of("format"), parsed.arguments());
+    }
+
+    @Test
+    void parsesAPrefixWithoutAName() {
+        final var parsed = ChatCommandParser.parse("!   ", "!");
+        assertNotNull(parsed);
+        assertEquals("", parsed.name());
+        assertTrue(parsed.arguments().isEmpty());
+    }
+
+    @Test
+    void usesTheFirstMatchingPrefix() {
+        final var parsed = ChatCommandParser.parse("!!help", List.of("!!", "!"));
+        assertNotNull(parsed);
+        assertEquals("!!", parsed.prefix());
+        assertEquals("help", parsed.name());
+    }
+}
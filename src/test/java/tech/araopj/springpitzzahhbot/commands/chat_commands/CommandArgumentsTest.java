@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.commands.chat_commands;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+class CommandArgumentsTest {
+
+    private static CommandArguments arguments(String content) {
+        return new CommandArguments(content, 0);
+    }
+
+    @Test
+    void splitsOnAnyWhitespace() {
+        assertEquals(List.of("a", "b", "c"), arguments("  a \t b\nc  "));
+    }
+
+    @Test
+    void hasNoArgumentsInBlankText() {
+        assertTrue(arguments("").isEmpty());
+        assertTrue(arguments(" \t ").isEmpty());
+    }
+
+    @Test
+    void keepsWhitespaceInsideQuotes() {
+        assertEquals(List.of("hello  world", "x"), arguments("\"hello  world\" x"));
+    }
+
+    @Test
+    void readsAnEmptyQuotedArgument() {
+        assertEquals(List.of("", "x"), arguments("\"\" x"));
+    }
+
+    @Test
+    void unescapesQuotesAndBackslashesInsideQuotes() {
+        assertEquals(List.of("say \"hi\"", "a\\b"), arguments("\"say \\\"hi\\\"\" \"a\\\\b\""));
+    }
+
+    @Test
+    void keepsBackslashesAndQuotesOutsideQuotesAsTyped() {
+        assertEquals(List.of("a\\\"b", "ab\"cd"), arguments("a\\\"b ab\"cd"));
+    }
+
+    @Test
+    void runsAnUnterminatedQuoteToTheEndOfTheMessage() {
+        assertEquals(List.of("x", "open quote "), arguments("x \"open quote "));
+    }
+
+    @Test
+    void runsAnUnterminatedQuoteEndingInABackslashToTheEnd() {
+        assertEquals(List.of("tail\\"), arguments("\"tail\\"));
+        assertEquals(List.of("tail\""), arguments("\"tail\\\""));
+    }
+
+    @Test
+    void startsNextToTheQuoteThatOpensAnArgument() {
+        final var arguments = arguments("one \"two three\" four");
+        assertEquals(0, arguments.start(0));
+        assertEquals(4, arguments.start(1));
+        assertEquals(16, arguments.start(2));
+    }
+
+    @Test
+    void keepsTheRemainderAsTyped() {
+        final var arguments = ChatCommandParser.parse("!say #general  hello   \"big\"  world ", "!").arguments();
+        assertEquals("hello   \"big\"  world", arguments.remainder(1));
+        assertEquals("world", arguments.remainder(3));
+    }
+
+    @Test
+    void keepsTheQuotesOfTheFirstArgumentOfTheRemainder() {
+        assertEquals("\"a b\" c", arguments("\"a b\" c").remainder(0));
+    }
+
+    @Test
+    void rejectsArgumentsOutOfBounds() {
+        final var arguments = arguments("a b");
+        assertThrows(IndexOutOfBoundsException.class, () -> arguments.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> arguments.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> arguments.remainder(2));
+    }
+
+    @Test
+    void returnsTheSameStringForRepeatedReads() {
+        final var arguments = arguments("\"a b\" c");
+        assertSame(arguments.get(0), arguments.get(0));
+    }
+
+    @Test
+    void growsPastTheInitialCapacity() {
+        final var arguments = arguments("1 2 3 4 5 6 7 8 9 10");
+        assertEquals(10, arguments.size());
+        assertEquals("10", arguments.get(9));
+    }
+}
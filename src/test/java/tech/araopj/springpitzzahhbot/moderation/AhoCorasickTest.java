@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import tech.araopj.springpitzzahhbot.moderation.AhoCorasick.Match;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+class AhoCorasickTest {
+
+    @Test
+    void findsOverlappingAndNestedWords() {
+        final var automaton = AhoCorasick.compile(List.of("he", "she", "his", "hers"));
+        assertEquals(List.of(
+                new Match(1, 4, "she"),
+                new Match(2, 4, "he"),
+                new Match(2, 6, "hers")
+        ), automaton.findAll("ushers"));
+    }
+
+    @Test
+    void followsFailureLinksIntoOtherBranches() {
+        final var automaton = AhoCorasick.compile(List.of("abcd", "bce", "c"));
+        assertEquals(List.of(
+                new Match(2, 3, "c"),
+                new Match(1, 4, "bce")
+        ), automaton.findAll("abce"));
+    }
+
+    @Test
+    void findsRepeatedWordsEveryTime() {
+        final var automaton = AhoCorasick.compile(List.of("aa"));
+        assertEquals(List.of(
+                new Match(0, 2, "aa"),
+                new Match(1, 3, "aa"),
+                new Match(2, 4, "aa")
+        ), automaton.findAll("aaaa"));
+    }
+
+    @Test
+    void ignoresCaseBlanksAndDuplicates() {
+        final var automaton = AhoCorasick.compile(List.of(" Bad ", "bad", "", "  "));
+        assertEquals(1, automaton.size());
+        assertEquals(List.of(new Match(4, 7, "bad")), automaton.findAll("too BAD"));
+    }
+
+    @Test
+    void scansOnlyTheRegionAndStopsWhenAsked() {
+        final var automaton = AhoCorasick.compile(List.of("ab"));
+        final var starts = new ArrayList<Integer>();
+        automaton.scan("ab ab ab ab", 2, 8, (start, end, word) -> starts.add(start));
+        assertEquals(List.of(3, 6), starts);
+        starts.clear();
+        automaton.scan("ab ab ab ab", 0, 11, (start, end, word) -> starts.add(start) && false);
+        assertEquals(List.of(0), starts);
+    }
+
+    @Test
+    void emptyMatchesNothing() {
+        assertTrue(AhoCorasick.empty().findAll("anything").isEmpty());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import tech.araopj.springpitzzahhbot.moderation.AuditLog.Scope;
+import tech.araopj.springpitzzahhbot.moderation.AuditLog.Entry;
+import tech.araopj.springpitzzahhbot.moderation.AuditLog.Page;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+class AuditLogTest {
+
+    @Test
+    void pagesOlderAndBackNewer() {
+        final var log = new AuditLog(100);
+        for (int i = 1; i <= 5; i++) log.add(record(i * 1_000L, 10, 20));
+
+        final var first = log.page(Scope.USER, 1, 10, 0, null, 2);
+        assertEquals(List.of(5_000L, 4_000L), times(first));
+        assertTrue(first.hasOlder());
+        assertFalse(first.hasNewer());
+
+        final var second = log.page(Scope.USER, 1, 10, 0, last(first).cursor(true), 2);
+        assertEquals(List.of(3_000L, 2_000L), times(second));
+        assertTrue(second.hasOlder());
+        assertTrue(second.hasNewer());
+
+        final var third = log.page(Scope.USER, 1, 10, 0, last(second).cursor(true), 2);
+        assertEquals(List.of(1_000L), times(third));
+        assertFalse(third.hasOlder());
+        assertTrue(third.hasNewer());
+
+        final var back = log.page(Scope.USER, 1, 10, 0, second.entries().get(0).cursor(false), 2);
+        assertEquals(times(first), times(back));
+        assertTrue(back.hasOlder());
+        assertFalse(back.hasNewer());
+    }
+
+    @Test
+    void ordersEntriesOfTheSameTimeBySequence() {
+        final var log = new AuditLog(100);
+        for (int i = 0; i < 4; i++) log.add(record(1_000, 10, 20));
+
+        final var first = log.page(Scope.GUILD, 1, 0, 0, null, 2);
+        final var second = log.page(Scope.GUILD, 1, 0, 0, last(first).cursor(true), 2);
+        assertEquals(List.of(4L, 3L), sequences(first));
+        assertEquals(List.of(2L, 1L), sequences(second));
+        assertFalse(second.hasOlder());
+    }
+
+    @Test
+    void keepsEachScopeToItsSubject() {
+        final var log = new AuditLog(100);
+        log.add(record(1_000, 10, 20));
+        log.add(record(2_000, 11, 20));
+        log.add(record(3_000, 10, 21));
+        log.add(new ViolationRecord(4_000, 2, 10, 20, ViolationReason.FLOOD, 1.0));
+
+        assertEquals(List.of(3_000L, 1_000L), times(log.page(Scope.USER, 1, 10, 0, null, 10)));
+        assertEquals(List.of(2_000L, 1_000L), times(log.page(Scope.CHANNEL, 1, 20, 0, null, 10)));
+        assertEquals(List.of(3_000L, 2_000L, 1_000L), times(log.page(Scope.GUILD, 1, 99, 0, null, 10)));
+    }
+
+    @Test
+    void leavesOutEntriesBeforeTheGivenTime() {
+        final var log = new AuditLog(100);
+        for (int i = 1; i <= 5; i++) log.add(record(i * 1_000L, 10, 20));
+
+        final var page = log.page(Scope.USER, 1, 10, 3_000, null, 10);
+        assertEquals(List.of(5_000L, 4_000L, 3_000L), times(page));
+        assertFalse(page.hasOlder());
+    }
+
+    @Test
+    void dropsTheOldestEntriesFromEveryIndex() {
+        final var log = new AuditLog(3);
+        for (int i = 1; i <= 5; i++) log.add(record(i * 1_000L, 10, 20));
+
+        assertEquals(3, log.size());
+        assertEquals(List.of(5_000L, 4_000L, 3_000L), times(log.page(Scope.USER, 1, 10, 0, null, 10)));
+        assertEquals(List.of(5_000L, 4_000L, 3_000L), times(log.page(Scope.CHANNEL, 1, 20, 0, null, 10)));
+        assertEquals(List.of(3_000L, 4_000L, 5_000L), log.records().stream().map(ViolationRecord::timeInMillis).toList());
+    }
+
+    private static ViolationRecord record(long time, long userId, long channelId) {
+        return new ViolationRecord(time, 1, userId, channelId, ViolationReason.FLOOD, 1.0);
+    }
+
+    private static Entry last(Page page) {
+        return page.entries().get(page.entries().size() - 1);
+    }
+
+    private static List<Long> times(Page page) {
+        return page.entries().stream().map(entry -> entry.record().timeInMillis()).toList();
+    }
+
+    private static List<Long> sequences(Page page) {
+        return page.entries().stream().map(Entry::sequence).toList();
+    }
+}
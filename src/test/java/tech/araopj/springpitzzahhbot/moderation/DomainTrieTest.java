@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+class DomainTrieTest {
+
+    @Test
+    void blocksTheDomainAndItsSubdomains() {
+        final var trie = DomainTrie.compile(List.of("example.com"));
+        assertTrue(trie.isBlocked("example.com"));
+        assertTrue(trie.isBlocked("www.Example.COM"));
+        assertFalse(trie.isBlocked("notexample.com"));
+        assertFalse(trie.isBlocked("example.com.evil.net"));
+        assertFalse(trie.isBlocked("com"));
+    }
+
+    @Test
+    void readsHostsFilesWildcardsAndComments() {
+        final var trie = DomainTrie.compile(List.of(
+                "# a comment",
+                "0.0.0.0 ads.example.net # trailing",
+                "*.tracker.org",
+                ".spam.io.",
+                "localhost",
+                "bad..domain",
+                ""
+        ));
+        assertEquals(3, trie.size());
+        assertTrue(trie.isBlocked("ads.example.net"));
+        assertFalse(trie.isBlocked("example.net"));
+        assertTrue(trie.isBlocked("a.tracker.org"));
+        assertTrue(trie.isBlocked("spam.io"));
+        assertFalse(trie.isBlocked("localhost"));
+    }
+
+    @Test
+    void reportsTheShortestBlockedParent() {
+        final var trie = DomainTrie.compile(List.of("a.b.example.com", "example.com"));
+        assertEquals("example.com", trie.blockedBy("x.a.b.example.com", 0, 17));
+    }
+
+    @Test
+    void checksOnlyTheGivenRegion() {
+        final var trie = DomainTrie.compile(List.of("example.com"));
+        final var text = "see https://www.example.com/path";
+        final var from = text.indexOf("www");
+        final var to = text.indexOf("/path");
+        assertEquals("example.com", trie.blockedBy(text, from, to));
+        assertNull(trie.blockedBy(text, from, to - 1));
+    }
+
+    @Test
+    void emptyBlocksNothing() {
+        assertFalse(DomainTrie.empty().isBlocked("example.com"));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+class SampledEvictionTest {
+
+    @Test
+    void evictsTheLeastRecentlySeenOfASmallMap() {
+        final var map = new HashMap<String, Long>(Map.of("a", 30L, "b", 10L, "c", 20L));
+        SampledEviction.evictLeastRecentlySeen(map, Long::longValue);
+        assertEquals(Map.of("a", 30L, "c", 20L), map);
+    }
+
+    @Test
+    void leavesAnEmptyMapAlone() {
+        final var map = new ConcurrentHashMap<String, Long>();
+        SampledEviction.evictLeastRecentlySeen(map, Long::longValue);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void spreadsEvictionsOverTheWholeMap() {
+        final var map = new ConcurrentHashMap<Integer, Long>();
+        for (int i = 0; i < 10_000; i++) map.put(i, 0L);
+        final var order = new ArrayList<>(map.keySet());
+        for (int i = 0; i < 200; i++) SampledEviction.evictLeastRecentlySeen(map, Long::longValue);
+        assertEquals(9_800, map.size());
+        var furthest = 0;
+        for (var key : order) {
+            if (!map.containsKey(key)) furthest = Math.max(furthest, order.indexOf(key));
+        }
+        // evicting from the start of the map only would never get past the first few hundred entries
+        assertTrue(furthest > order.size() / 2);
+    }
+}
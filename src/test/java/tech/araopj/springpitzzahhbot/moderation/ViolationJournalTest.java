@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.DataInputStream;
+import org.junit.jupiter.api.Test;
+import java.io.RandomAccessFile;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class ViolationJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysTheRecordsAcrossSegments() throws IOException {
+        try (var journal = ViolationJournal.open(directory, 4, new State())) {
+            for (int i = 0; i < 10; i++) journal.append(record(i), () -> { });
+        }
+        final var state = new State();
+        try (var ignored = ViolationJournal.open(directory, 4, state)) {
+            assertEquals(-1, state.restored);
+            assertEquals(users(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), state.users());
+        }
+    }
+
+    @Test
+    void stopsAtATornRecordAndAppendsOverIt() throws IOException {
+        try (var journal = ViolationJournal.open(directory, 8, new State())) {
+            for (int i = 0; i < 3; i++) journal.append(record(i), () -> { });
+        }
+        try (var file = new RandomAccessFile(files("segment-").get(0).toFile(), "rw")) {
+            file.seek(2 * ViolationJournal.RECORD_SIZE + 20);
+            file.writeInt(0xBAD);
+        }
+        final var state = new State();
+        try (var journal = ViolationJournal.open(directory, 8, state)) {
+            assertEquals(users(0, 1), state.users());
+            journal.append(record(7), () -> { });
+        }
+        final var reopened = new State();
+        try (var ignored = ViolationJournal.open(directory, 8, reopened)) {
+            assertEquals(users(0, 1, 7), reopened.users());
+        }
+    }
+
+    @Test
+    void replaysATruncatedSegmentUpToItsLastWholeRecord() throws IOException {
+        try (var journal = ViolationJournal.open(directory, 8, new State())) {
+            for (int i = 0; i < 3; i++) journal.append(record(i), () -> { });
+        }
+        try (var file = new RandomAccessFile(files("segment-").get(0).toFile(), "rw")) {
+            file.setLength(2 * ViolationJournal.RECORD_SIZE + 20);
+        }
+        final var state = new State();
+        try (var ignored = ViolationJournal.open(directory, 8, state)) {
+            assertEquals(users(0, 1), state.users());
+        }
+    }
+
+    @Test
+    void restoresTheSnapshotAndReplaysTheRecordsAfterIt() throws IOException {
+        try (var journal = ViolationJournal.open(directory, 8, new State())) {
+            journal.append(record(0), () -> { });
+            journal.append(record(1), () -> { });
+            journal.snapshot(() -> out -> out.writeInt(2));
+            journal.append(record(2), () -> { });
+        }
+        final var state = new State();
+        try (var ignored = ViolationJournal.open(directory, 8, state)) {
+            assertEquals(2, state.restored);
+            assertEquals(users(2), state.users());
+        }
+    }
+
+    @Test
+    void fallsBackToThePreviousSnapshotWhenTheLatestIsCorrupt() throws IOException {
+        try (var journal = ViolationJournal.open(directory, 8, new State())) {
+            journal.append(record(0), () -> { });
+            journal.snapshot(() -> out -> out.writeInt(1));
+            journal.append(record(1), () -> { });
+            journal.snapshot(() -> out -> out.writeInt(2));
+            journal.append(record(2), () -> { });
+        }
+        final var latest = files("snapshot-").get(1);
+        final var content = Files.readAllBytes(latest);
+        content[5] ^= 1;
+        Files.write(latest, content);
+        final var state = new State();
+        try (var ignored = ViolationJournal.open(directory, 8, state)) {
+            assertEquals(1, state.restored);
+            assertEquals(users(1, 2), state.users());
+        }
+    }
+
+    @Test
+    void fallsBackToThePreviousSnapshotWhenTheLatestIsTruncated() throws IOException {
+        try (var journal = ViolationJournal.open(directory, 8, new State())) {
+            journal.append(record(0), () -> { });
+            journal.snapshot(() -> out -> out.writeInt(1));
+            journal.append(record(1), () -> { });
+            journal.snapshot(() -> out -> out.writeLong(2));
+        }
+        final var latest = files("snapshot-").get(1);
+        try (var file = new RandomAccessFile(latest.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        final var state = new State();
+        try (var ignored = ViolationJournal.open(directory, 8, state)) {
+            assertEquals(1, state.restored);
+            assertEquals(users(1), state.users());
+        }
+    }
+
+    @Test
+    void keepsThePreviousSnapshotAndTheSegmentsSinceIt() throws IOException {
+        try (var journal = ViolationJournal.open(directory, 8, new State())) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(record(i), () -> { });
+                final var count = i + 1;
+                journal.snapshot(() -> out -> out.writeInt(count));
+            }
+        }
+        assertEquals(2, files("snapshot-").size());
+        final var previous = sequence(files("snapshot-").get(0));
+        for (var segment : files("segment-")) assertTrue(sequence(segment) >= previous);
+    }
+
+    @Test
+    void failsWhenAnIntactSnapshotCannotBeRestored() throws IOException {
+        try (var journal = ViolationJournal.open(directory, 8, new State())) {
+            journal.append(record(0), () -> { });
+            journal.snapshot(() -> out -> out.writeInt(1));
+        }
+        final var state = new State() {
+            @Override
+            public void restore(DataInputStream in) throws IOException {
+                throw new IOException("Unknown snapshot format");
+            }
+        };
+        assertThrows(IOException.class, () -> ViolationJournal.open(directory, 8, state));
+        assertTrue(state.users().isEmpty());
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix))
+                    .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequence(Path file) {
+        final var name = file.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.indexOf('.')));
+    }
+
+    private static ViolationRecord record(long userId) {
+        return new ViolationRecord(1_000 + userId, 1, userId, 2, ViolationReason.FLOOD, 1.0);
+    }
+
+    private static List<Long> users(long... userIds) {
+        final var users = new ArrayList<Long>();
+        for (var userId : userIds) users.add(userId);
+        return users;
+    }
+
+    private static class State implements ViolationJournal.Replayer {
+        private final List<ViolationRecord> replayed = new ArrayList<>();
+        private int restored = -1;
+
+        @Override
+        public void restore(DataInputStream in) throws IOException {
+            restored = in.readInt();
+        }
+
+        @Override
+        public void replay(ViolationRecord record) {
+            replayed.add(record);
+        }
+
+        List<Long> users() {
+            return replayed.stream().map(ViolationRecord::userId).toList();
+        }
+    }
+}
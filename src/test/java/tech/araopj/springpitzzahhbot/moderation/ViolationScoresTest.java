@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.moderation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Random;
+
+class ViolationScoresTest {
+
+    private static final Duration HALF_LIFE = Duration.ofSeconds(1);
+
+    @Test
+    void decaysToHalfEveryHalfLife() {
+        final var scores = new ViolationScores(1, HALF_LIFE);
+        assertEquals(1.0, scores.add(1, 2, 1, 10_000), 1e-9);
+        assertEquals(0.5, scores.get(1, 2, 11_000), 1e-9);
+        assertEquals(0.25, scores.get(1, 2, 12_000), 1e-9);
+        assertEquals(1.5, scores.add(1, 2, 1, 11_000), 1e-9);
+    }
+
+    @Test
+    void doesNotGrowWhenReadBeforeTheLastUpdate() {
+        final var scores = new ViolationScores(1, HALF_LIFE);
+        scores.add(1, 2, 1, 10_000);
+        assertEquals(1.0, scores.get(1, 2, 9_000), 1e-9);
+        assertEquals(2.0, scores.add(1, 2, 1, 9_000), 1e-9);
+        assertEquals(1.0, scores.get(1, 2, 11_000), 1e-9);
+    }
+
+    @Test
+    void resetsOnlyTheViolationThatReachesTheLimit() {
+        final var scores = new ViolationScores(1, HALF_LIFE);
+        assertFalse(scores.addAndReset(1, 2, 1, 3, 10_000));
+        assertFalse(scores.addAndReset(1, 2, 1, 3, 10_000));
+        assertTrue(scores.addAndReset(1, 2, 1, 3, 10_000));
+        assertEquals(0.0, scores.get(1, 2, 10_000), 0);
+        assertEquals(0, scores.size());
+    }
+
+    @Test
+    void forgetsViolationsSpreadOverTime() {
+        final var scores = new ViolationScores(1, HALF_LIFE);
+        for (int i = 0; i < 10; i++) assertFalse(scores.addAndReset(1, 2, 1, 3, 10_000 + i * 2_000L));
+    }
+
+    @Test
+    void purgesTheScoresThatDecayed() {
+        final var scores = new ViolationScores(1, HALF_LIFE);
+        scores.add(1, 2, 1, 10_000);
+        scores.add(1, 3, 1, 15_000);
+        assertEquals(1, scores.purge(0.1, 15_000));
+        assertEquals(1, scores.size());
+        assertEquals(0.0, scores.get(1, 2, 15_000), 0);
+        assertEquals(1.0, scores.get(1, 3, 15_000), 1e-9);
+    }
+
+    @Test
+    void restoresWhatItVisits() {
+        final var scores = new ViolationScores(1, HALF_LIFE);
+        scores.add(1, 2, 1, 10_000);
+        scores.add(3, 4, 2, 12_000);
+        final var restored = new ViolationScores(4, HALF_LIFE);
+        scores.forEach(restored::put);
+        assertEquals(2, restored.size());
+        assertEquals(scores.get(1, 2, 20_000), restored.get(1, 2, 20_000), 1e-12);
+        assertEquals(scores.get(3, 4, 20_000), restored.get(3, 4, 20_000), 1e-12);
+    }
+
+    @Test
+    void keepsGuildsApart() {
+        final var scores = new ViolationScores(1, HALF_LIFE);
+        scores.add(1, 2, 1, 10_000);
+        scores.add(3, 2, 1, 10_000);
+        scores.remove(1, 2);
+        assertEquals(0.0, scores.get(1, 2, 10_000), 0);
+        assertEquals(1.0, scores.get(3, 2, 10_000), 1e-9);
+    }
+
+    /**
+     * Few keys over small tables, so removals shift entries back across the end of the table all the time.
+     */
+    @Test
+    void findsEveryScoreAfterRemovalsAndReinsertions() {
+        final var scores = new ViolationScores(1, Duration.ofDays(365));
+        final var expected = new HashMap<Long, Integer>();
+        final var random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            final var userId = 1 + random.nextInt(60);
+            if (random.nextInt(3) == 0) {
+                scores.remove(7, userId);
+                expected.remove((long) userId);
+            } else {
+                scores.add(7, userId, 1, 10_000);
+                expected.merge((long) userId, 1, Integer::sum);
+            }
+            if (i % 1_000 == 0) assertEverythingFound(scores, expected);
+        }
+        assertEverythingFound(scores, expected);
+        for (var userId : expected.keySet()) scores.remove(7, userId);
+        assertEquals(0, scores.size());
+    }
+
+    private static void assertEverythingFound(ViolationScores scores, HashMap<Long, Integer> expected) {
+        assertEquals(expected.size(), scores.size());
+        for (long userId = 1; userId <= 60; userId++) {
+            assertEquals(expected.getOrDefault(userId, 0), scores.get(7, userId, 10_000), 1e-6);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 pitzzahh
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tech.araopj.springpitzzahhbot.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.Test;
+import java.util.Properties;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class GuildPropertiesStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void savesEveryGuildToItsOwnFile() {
+        final var store = new GuildPropertiesStore(directory.resolve("guilds"), "test");
+        store.save(1, properties("prefixes", "! ?"));
+        store.save(2, properties("prefixes", "pz"));
+        store.save(1, properties("prefixes", "$"));
+        final var loaded = store.load();
+        assertEquals(2, loaded.size());
+        assertEquals("$", loaded.get(1L).getProperty("prefixes"));
+        assertEquals("pz", loaded.get(2L).getProperty("prefixes"));
+        assertTrue(Files.exists(directory.resolve("guilds").resolve("2.properties")));
+    }
+
+    @Test
+    void deletesTheFileOfAGuildWithoutSettings() {
+        final var store = new GuildPropertiesStore(directory, "test");
+        store.save(1, properties("prefixes", "!"));
+        store.save(1, new Properties());
+        assertTrue(store.load().isEmpty());
+        assertFalse(Files.exists(directory.resolve("1.properties")));
+    }
+
+    @Test
+    void skipsFilesThatAreNotGuildSettings() throws IOException {
+        final var store = new GuildPropertiesStore(directory, "test");
+        store.save(1, properties("denied", "word"));
+        Files.writeString(directory.resolve("backup.properties"), "denied=other");
+        Files.writeString(directory.resolve("2.properties"), "denied=\\u12");
+        Files.writeString(directory.resolve("notes.txt"), "hello");
+        final var loaded = store.load();
+        assertEquals(1, loaded.size());
+        assertEquals("word", loaded.get(1L).getProperty("denied"));
+    }
+
+    @Test
+    void loadsNothingBeforeTheFirstSave() {
+        assertTrue(new GuildPropertiesStore(directory.resolve("missing"), "test").load().isEmpty());
+    }
+
+    private static Properties properties(String key, String value) {
+        final var properties = new Properties();
+        properties.setProperty(key, value);
+        return properties;
+    }
+}